@@ -1,5 +1,10 @@
 public class App {
     public static void main(String[] args) {
+        Metrics.register();
+        // with arguments: headless batch mode (see BatchRunner)
+        if (args.length > 0) {
+            System.exit(BatchRunner.run(args));
+        }
         javax.swing.SwingUtilities.invokeLater(() -> new MainMenu());
     }
 }
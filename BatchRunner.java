@@ -0,0 +1,329 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * BatchRunner - headless batch mode, started by App when it gets arguments.
+ *
+ *   java App solve|validate|rate [-t threads] [-o output] [input]
+ *   java App generate [-t threads] [-o output] [-n count] [-d difficulty] [-s seed]
+ *                     [-y none|rotational|mirror] [-m]
+ *
+ * Puzzles are 81-character lines ('0', '.' or '-' = empty); blank lines and
+ * '#' comments are skipped. Input comes from the file, or stdin when it is
+ * missing or "-", and results go to the output file or stdout, one line per
+ * puzzle and in input order:
+ *
+ *   solve    : the solution, "unsolvable" or "invalid"
+ *   validate : unique, multiple, unsolvable or invalid
+ *   rate     : difficulty,score,hardest technique for a unique puzzle, else
+ *              multiple, unsolvable or invalid as in validate
+ *   generate : puzzle,solution (with -s, puzzle i is PuzzleSeed seed + i, so
+ *              the output is the same on every run and for any -t; without
+ *              -s the puzzles come from a GenerationPipeline with -t diggers,
+ *              and its per-stage stats are reported on stderr; -y digs in
+ *              symmetric pairs and -m down to a minimal puzzle, both
+ *              without -s only)
+ *
+ * The reader cuts the input into chunks and hands them to the workers
+ * through a bounded queue. The writer puts finished chunks back in order.
+ * At most IN_FLIGHT chunks per worker exist at any time, and the reader
+ * blocks until the writer frees one, so memory stays flat however long the
+ * input is. Throughput is reported on stderr.
+ */
+public class BatchRunner {
+
+    private static final int CHUNK = 256;        // lines per chunk
+    private static final int IN_FLIGHT = 4;      // chunks per worker
+    private static final int BUFFER = 1 << 16;
+
+    private static final Chunk POISON = new Chunk(-1, 0);
+
+    private final String mode;
+    private final int threads;
+    private final String difficulty;
+    private final Long seed;
+
+    private final BlockingQueue<Chunk> work;
+    private final Chunk[] slots;                 // finished chunks, by seq % slots.length
+    private final Semaphore permits;
+    private final Object lock = new Object();
+    private long total = -1;                     // chunk count, once the reader is done
+    private Throwable failure;
+
+    BatchRunner(String mode, int threads, String difficulty, Long seed) {
+        this.mode = mode;
+        this.threads = threads;
+        this.difficulty = difficulty;
+        this.seed = seed;
+        int inFlight = threads * IN_FLIGHT;
+        work = new ArrayBlockingQueue<>(inFlight);
+        slots = new Chunk[inFlight];
+        permits = new Semaphore(inFlight);
+    }
+
+    // ---------- Entry point ----------
+
+    /** Runs the batch command in args; returns the process exit code. */
+    public static int run(String[] args) {
+        String mode = args[0].toLowerCase();
+        if (!mode.equals("solve") && !mode.equals("validate") && !mode.equals("rate") && !mode.equals("generate")) {
+            return usage("Unknown command: " + args[0]);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        String input = null, output = null, difficulty = "medium";
+        long count = 100;
+        Long seed = null;
+        PuzzleDigger.Symmetry symmetry = PuzzleDigger.Symmetry.NONE;
+        boolean minimal = false;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-t": threads = Integer.parseInt(args[++i]); break;
+                    case "-o": output = args[++i]; break;
+                    case "-n": count = Long.parseLong(args[++i]); break;
+                    case "-d": difficulty = args[++i]; break;
+                    case "-s": seed = Long.parseLong(args[++i]); break;
+                    case "-y": symmetry = PuzzleDigger.Symmetry.of(args[++i]); break;
+                    case "-m": minimal = true; break;
+                    default:
+                        if (input != null) return usage("Unexpected argument: " + args[i]);
+                        input = args[i];
+                }
+            }
+        } catch (RuntimeException ex) {
+            return usage("Bad arguments: " + ex.getMessage());
+        }
+        if (threads < 1) return usage("Thread count must be at least 1");
+        if (seed != null && (minimal || symmetry != PuzzleDigger.Symmetry.NONE))
+            return usage("-y and -m cannot be combined with -s (seeded puzzles use the standard dig)");
+
+        BatchRunner runner = new BatchRunner(mode, threads, difficulty, seed);
+        try (BufferedReader in = mode.equals("generate") ? null : openInput(input);
+             Writer out = openOutput(output)) {
+            long start = System.nanoTime();
+            long done = (mode.equals("generate") && seed == null)
+                    ? generatePipelined(difficulty, symmetry, minimal, count, threads, out)
+                    : runner.process(in, count, out);
+            out.flush();
+            double secs = (System.nanoTime() - start) / 1e9;
+            System.err.printf("%s: %d puzzles in %.2f s (%.0f puzzles/s, %d threads)%n",
+                    mode, done, secs, done / Math.max(secs, 1e-9), threads);
+            return 0;
+        } catch (IOException | InterruptedException ex) {
+            System.err.println(mode + " failed: " + ex);
+            return 1;
+        }
+    }
+
+    private static int usage(String problem) {
+        System.err.println(problem);
+        System.err.println("usage: java App solve|validate|rate [-t threads] [-o output] [input]");
+        System.err.println("       java App generate [-t threads] [-o output] [-n count] [-d easy|medium|hard] [-s seed]");
+        System.err.println("                         [-y none|rotational|mirror] [-m]");
+        return 2;
+    }
+
+    private static BufferedReader openInput(String input) throws IOException {
+        ReadableByteChannel ch = (input == null || input.equals("-"))
+                ? Channels.newChannel(System.in)
+                : FileChannel.open(Paths.get(input), StandardOpenOption.READ);
+        return new BufferedReader(Channels.newReader(ch, StandardCharsets.US_ASCII), BUFFER);
+    }
+
+    private static Writer openOutput(String output) throws IOException {
+        WritableByteChannel ch = (output == null || output.equals("-"))
+                ? Channels.newChannel(System.out)
+                : FileChannel.open(Paths.get(output), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedWriter(Channels.newWriter(ch, StandardCharsets.US_ASCII), BUFFER);
+    }
+
+    // ---------- Pipeline ----------
+
+    /** Streams in (or count generated puzzles when in is null) through the workers into out. */
+    long process(BufferedReader in, long count, Writer out) throws IOException, InterruptedException {
+        Thread reader = new Thread(() -> read(in, count), "batch-reader");
+        reader.setDaemon(true);
+        reader.start();
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(this::work, "batch-worker-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        long puzzles = 0;
+        for (long next = 0; ; next++) {
+            Chunk chunk;
+            synchronized (lock) {
+                int slot = (int) (next % slots.length);
+                while (slots[slot] == null && failure == null && total != next) lock.wait();
+                if (failure != null) throw new IOException("Batch input failed", failure);
+                if (total == next) break;
+                chunk = slots[slot];
+                slots[slot] = null;
+            }
+            for (int i = 0; i < chunk.size; i++) {
+                out.write(chunk.results[i]);
+                out.write('\n');
+            }
+            puzzles += chunk.size;
+            permits.release();
+        }
+        return puzzles;
+    }
+
+    private void read(BufferedReader in, long count) {
+        long seq = 0;
+        try {
+            if (in == null) {
+                for (long left = count; left > 0; left -= CHUNK) {
+                    Chunk chunk = new Chunk(seq++, CHUNK);
+                    chunk.size = (int) Math.min(CHUNK, left);
+                    submit(chunk);
+                }
+            } else {
+                Chunk chunk = new Chunk(seq++, CHUNK);
+                String line;
+                while ((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+                    chunk.lines[chunk.size++] = line;
+                    if (chunk.size == CHUNK) {
+                        submit(chunk);
+                        chunk = new Chunk(seq++, CHUNK);
+                    }
+                }
+                if (chunk.size > 0) submit(chunk);
+                else seq--;
+            }
+            for (int i = 0; i < threads; i++) work.put(POISON);
+            synchronized (lock) {
+                total = seq;
+                lock.notifyAll();
+            }
+        } catch (IOException | InterruptedException ex) {
+            synchronized (lock) {
+                failure = ex;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Blocks while IN_FLIGHT chunks per worker are unwritten (backpressure)
+    private void submit(Chunk chunk) throws InterruptedException {
+        permits.acquire();
+        work.put(chunk);
+    }
+
+    private void work() {
+        int[] cells = new int[81];
+        int[] out = new int[81];
+        try {
+            for (Chunk chunk; (chunk = work.take()) != POISON; ) {
+                for (int i = 0; i < chunk.size; i++) {
+                    String result;
+                    try {
+                        result = mode.equals("generate") ? generate(chunk.seq * CHUNK + i) : handle(chunk.lines[i], cells, out);
+                    } catch (RuntimeException ex) {
+                        result = "error: " + ex.getMessage();
+                    }
+                    chunk.results[i] = result;
+                }
+                chunk.lines = null;
+                synchronized (lock) {
+                    slots[(int) (chunk.seq % slots.length)] = chunk;
+                    lock.notifyAll();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------- Commands ----------
+
+    private String handle(String line, int[] cells, int[] out) {
+        if (!parse(line, cells)) return "invalid";
+        SolverEngine engine = Sudoku.SudokuSolver.engine();
+        switch (mode) {
+            case "solve":
+                return engine.solve(cells, out) ? format(out) : "unsolvable";
+            case "validate":
+                int n = engine.countSolutions(cells, 2, null);
+                return n == 0 ? "unsolvable" : n == 1 ? "unique" : "multiple";
+            default:
+                int solutions = engine.countSolutions(cells, 2, null);
+                if (solutions != 1) return solutions == 0 ? "unsolvable" : "multiple";
+                DifficultyRater.Rating r = DifficultyRater.rate(cells);
+                return r.difficulty() + "," + r.score + "," + (r.hardest == null ? "-" : r.hardest.name());
+        }
+    }
+
+    private String generate(long index) {
+        return format(PuzzleSeed.generate(seed + index, difficulty));
+    }
+
+    // Unseeded generate: order does not matter, so lines come straight off the pipeline's sink
+    private static long generatePipelined(String difficulty, PuzzleDigger.Symmetry symmetry, boolean minimal,
+                                          long count, int threads, Writer out) throws IOException, InterruptedException {
+        BlockingQueue<Sudoku.GeneratedSudoku> done = new ArrayBlockingQueue<>(CHUNK);
+        GenerationPipeline pipeline = new GenerationPipeline(difficulty, threads, symmetry, minimal, done::put)
+                .start(Thread.NORM_PRIORITY);
+        try {
+            for (long i = 0; i < count; i++) {
+                out.write(format(done.take()));
+                out.write('\n');
+            }
+        } finally {
+            pipeline.stop();
+            System.err.println("stages " + pipeline.stats());
+        }
+        return count;
+    }
+
+    private static String format(Sudoku.GeneratedSudoku s) {
+        return format(PuzzleBank.toCells(s.puzzle)) + "," + format(PuzzleBank.toCells(s.solution));
+    }
+
+    static boolean parse(String line, int[] cells) {
+        if (line.length() != 81) return false;
+        for (int i = 0; i < 81; i++) {
+            char ch = line.charAt(i);
+            if (ch == '.' || ch == '-' || ch == '0') cells[i] = 0;
+            else if (ch >= '1' && ch <= '9') cells[i] = ch - '0';
+            else return false;
+        }
+        return true;
+    }
+
+    static String format(int[] cells) {
+        char[] line = new char[81];
+        for (int i = 0; i < 81; i++) line[i] = cells[i] == 0 ? '.' : (char) ('0' + cells[i]);
+        return new String(line);
+    }
+
+    private static final class Chunk {
+        final long seq;
+        String[] lines;
+        final String[] results;
+        int size;
+
+        Chunk(long seq, int capacity) {
+            this.seq = seq;
+            this.lines = new String[capacity];
+            this.results = new String[capacity];
+        }
+    }
+}
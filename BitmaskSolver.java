@@ -0,0 +1,324 @@
+/**
+ * BitmaskSolver - constraint propagation solver for 9x9 boards.
+ *
+ * Keeps a "used digits" bitmask per row, column and box (bit d-1 = digit d),
+ * so the candidates of a cell are a single OR + NOT. Each search node first
+ * fills naked singles and hidden singles, then branches on the empty cell with
+ * the fewest candidates. All working arrays are allocated once per instance;
+ * a search itself allocates nothing.
+ *
+ * Not thread-safe: use one instance per thread.
+ */
+public class BitmaskSolver implements SolverEngine {
+
+    static final int SIZE = 9;
+    static final int CELLS = 81;
+    static final int ALL = 0x1FF;
+
+    // Cell -> row/col/box index, and the 27 units (9 rows, 9 cols, 9 boxes)
+    static final int[] ROW = new int[CELLS];
+    static final int[] COL = new int[CELLS];
+    static final int[] BOX = new int[CELLS];
+    static final int[][] UNITS = new int[27][SIZE];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            int r = i / 9, c = i % 9, b = (r / 3) * 3 + c / 3;
+            ROW[i] = r;
+            COL[i] = c;
+            BOX[i] = b;
+            UNITS[r][c] = i;
+            UNITS[9 + c][r] = i;
+            UNITS[18 + b][(r % 3) * 3 + c % 3] = i;
+        }
+    }
+
+    private final int[] cells = new int[CELLS];      // 0 = empty, else 1..9
+    private final int[] rowUsed = new int[SIZE];
+    private final int[] colUsed = new int[SIZE];
+    private final int[] boxUsed = new int[SIZE];
+    private final int[] trail = new int[CELLS];      // cells placed during search, for undo
+    private int trailSize;
+    private int empty;
+
+    private final int[] solution = new int[CELLS];
+    private int solutions;
+    private int limit;
+    private long nodes;
+
+    // ---------- Loading ----------
+
+    /** Loads a flat 81-cell board (0 = empty). Returns false if the givens conflict. */
+    public boolean load(int[] grid) {
+        if (grid.length != CELLS) throw new IllegalArgumentException("Expected 81 cells, got " + grid.length);
+        reset();
+        for (int i = 0; i < CELLS; i++) {
+            if (!loadCell(i, grid[i])) return false;
+        }
+        return true;
+    }
+
+    /** Loads a 9x9 board (0 = empty). Returns false if the givens conflict. */
+    public boolean load(int[][] grid) {
+        reset();
+        for (int r = 0; r < SIZE; r++)
+            for (int c = 0; c < SIZE; c++)
+                if (!loadCell(r * 9 + c, grid[r][c])) return false;
+        return true;
+    }
+
+    private void reset() {
+        java.util.Arrays.fill(cells, 0);
+        java.util.Arrays.fill(rowUsed, 0);
+        java.util.Arrays.fill(colUsed, 0);
+        java.util.Arrays.fill(boxUsed, 0);
+        trailSize = 0;
+        empty = CELLS;
+    }
+
+    private boolean loadCell(int cell, int v) {
+        if (v < 0 || v > 9) throw new IllegalArgumentException("Invalid digit " + v + " at cell " + cell);
+        if (v == 0) return true;
+        if ((candidates(cell) & (1 << (v - 1))) == 0) return false;
+        set(cell, v);
+        return true;
+    }
+
+    // ---------- SolverEngine ----------
+
+    @Override
+    public String name() {
+        return "bitmask";
+    }
+
+    @Override
+    public boolean solve(int[] board, int[] out) {
+        return countSolutions(board, 1, out) > 0;
+    }
+
+    @Override
+    public int countSolutions(int[] board, int limit, int[] out) {
+        if (!load(board)) return 0;
+        int n = countSolutions(limit);
+        if (n > 0 && out != null) copySolution(out);
+        return n;
+    }
+
+    // ---------- Solving ----------
+
+    /** Solves the loaded board. Returns true if a solution was found; read it with copySolution. */
+    public boolean solve() {
+        return countSolutions(1) > 0;
+    }
+
+    /** Counts solutions of the loaded board, stopping as soon as limit is reached. */
+    public int countSolutions(int limit) {
+        this.limit = limit;
+        this.solutions = 0;
+        this.nodes = 0;
+        long start = Metrics.start();
+        int mark = trailSize;
+        search();
+        undo(mark);
+        Metrics.count(Metrics.SOLVE_NODES, nodes);
+        Metrics.SOLVE.record(start);
+        return solutions;
+    }
+
+    /** First solution found by the last solve/countSolutions call (flat, 81 cells). */
+    public void copySolution(int[] out) {
+        System.arraycopy(solution, 0, out, 0, CELLS);
+    }
+
+    public void copySolution(int[][] out) {
+        for (int r = 0; r < SIZE; r++) System.arraycopy(solution, r * 9, out[r], 0, SIZE);
+    }
+
+    /**
+     * True if board has a solution other than known, i.e. one that differs
+     * from known in at least one of the first count cells of open (cells that
+     * are empty in board). This is the uniqueness test for removing those
+     * clues from a puzzle whose unique solution is known: only the subtrees
+     * where an open cell takes a different digit are searched, so it stops at
+     * the first counterexample instead of solving twice.
+     */
+    public boolean hasOtherSolution(int[] board, int[] known, int[] open, int count) {
+        return load(board) && hasOtherSolution(known, open, count);
+    }
+
+    /** Same test on the loaded board (see lift/put), which is left as it was. */
+    public boolean hasOtherSolution(int[] known, int[] open, int count) {
+        long start = Metrics.start();
+        this.limit = 1;
+        this.nodes = 0;
+        int base = trailSize;
+        boolean found = false;
+        for (int i = 0; i < count && !found; i++) {
+            int cell = open[i];
+            int cand = candidates(cell) & ~(1 << (known[cell] - 1));
+            while (cand != 0 && !found) {
+                int bit = cand & -cand;
+                cand ^= bit;
+                int mark = trailSize;
+                place(cell, bit);
+                this.solutions = 0;
+                search();
+                found = solutions > 0;
+                undo(mark);
+            }
+            // the remaining cells only need searching with this one at its known digit
+            if (!found) place(cell, 1 << (known[cell] - 1));
+        }
+        undo(base);
+        Metrics.count(Metrics.SOLVE_NODES, nodes);
+        Metrics.SOLVE.record(start);
+        return found;
+    }
+
+    // ---------- Editing the loaded board ----------
+    // Masks hold one bit per digit and unit, so cells can be emptied and
+    // refilled in any order; PuzzleReducer keeps one loaded board this way.
+
+    /** Empties a filled cell of the loaded board. */
+    void lift(int cell) {
+        int mask = ~(1 << (cells[cell] - 1));
+        cells[cell] = 0;
+        rowUsed[ROW[cell]] &= mask;
+        colUsed[COL[cell]] &= mask;
+        boxUsed[BOX[cell]] &= mask;
+        empty++;
+    }
+
+    /** Fills an empty cell of the loaded board (the digit must fit). */
+    void put(int cell, int v) {
+        set(cell, v);
+    }
+
+    int candidatesAt(int cell) {
+        return candidates(cell);
+    }
+
+    int valueAt(int cell) {
+        return cells[cell];
+    }
+
+    /** Search nodes visited by the last solve/countSolutions call. */
+    public long nodes() {
+        return nodes;
+    }
+
+    // Returns true when the search should stop (limit reached or thread interrupted)
+    private boolean search() {
+        if ((++nodes & 0x3FF) == 0 && Thread.currentThread().isInterrupted()) return true;
+        int mark = trailSize;
+        if (!propagate()) {
+            undo(mark);
+            return false;
+        }
+        if (empty == 0) {
+            if (++solutions == 1) System.arraycopy(cells, 0, solution, 0, CELLS);
+            undo(mark);
+            return solutions >= limit;
+        }
+
+        // most constrained cell first
+        int best = -1, bestCount = 10;
+        for (int i = 0; i < CELLS && bestCount > 2; i++) {
+            if (cells[i] != 0) continue;
+            int n = Integer.bitCount(candidates(i));
+            if (n < bestCount) {
+                best = i;
+                bestCount = n;
+            }
+        }
+
+        int cand = candidates(best);
+        while (cand != 0) {
+            int bit = cand & -cand;
+            cand ^= bit;
+            set(best, Integer.numberOfTrailingZeros(bit) + 1);
+            trail[trailSize++] = best;
+            if (search()) return true;
+            undo(trailSize - 1);
+        }
+        undo(mark);
+        return false;
+    }
+
+    // Fills naked and hidden singles until nothing changes. False on contradiction.
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            // naked singles
+            for (int i = 0; i < CELLS; i++) {
+                if (cells[i] != 0) continue;
+                int cand = candidates(i);
+                if (cand == 0) return false;
+                if ((cand & (cand - 1)) == 0) {
+                    place(i, cand);
+                    changed = true;
+                }
+            }
+            if (changed) continue;
+
+            // hidden singles: digits with exactly one possible cell in a unit
+            for (int u = 0; u < 27; u++) {
+                int[] unit = UNITS[u];
+                int once = 0, twice = 0, placed = 0;
+                for (int k = 0; k < SIZE; k++) {
+                    int cell = unit[k];
+                    if (cells[cell] != 0) {
+                        placed |= 1 << (cells[cell] - 1);
+                        continue;
+                    }
+                    int cand = candidates(cell);
+                    twice |= once & cand;
+                    once |= cand;
+                }
+                if ((once | placed) != ALL) return false; // some digit has nowhere to go
+
+                int hidden = once & ~twice;
+                while (hidden != 0) {
+                    int bit = hidden & -hidden;
+                    hidden ^= bit;
+                    int target = -1;
+                    for (int k = 0; k < SIZE; k++) {
+                        int cell = unit[k];
+                        if (cells[cell] == 0 && (candidates(cell) & bit) != 0) {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    if (target < 0) return false; // two hidden singles wanted the same cell
+                    place(target, bit);
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int candidates(int cell) {
+        return ALL & ~(rowUsed[ROW[cell]] | colUsed[COL[cell]] | boxUsed[BOX[cell]]);
+    }
+
+    private void place(int cell, int bit) {
+        set(cell, Integer.numberOfTrailingZeros(bit) + 1);
+        trail[trailSize++] = cell;
+    }
+
+    private void set(int cell, int v) {
+        int bit = 1 << (v - 1);
+        cells[cell] = v;
+        rowUsed[ROW[cell]] |= bit;
+        colUsed[COL[cell]] |= bit;
+        boxUsed[BOX[cell]] |= bit;
+        empty--;
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) lift(trail[--trailSize]);
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * BoardGeometry - unit tables for an N x N board with n x n boxes (N = n * n).
+ *
+ * Supports the classic 9x9 board and the larger 16x16 and 25x25 variants (any
+ * perfect square up to 64, so one long can hold a cell's candidate digits).
+ * Instances are immutable and shared; get one with of(size).
+ *
+ * Digits are 1..N; as text they are written 1-9, then A, B, C, ... (A = 10).
+ */
+public final class BoardGeometry {
+
+    public static final int MAX_SIZE = 64;
+
+    public final int box;       // n: box width/height
+    public final int size;      // N: row length and number of digits
+    public final int cells;     // N * N
+    public final long all;      // one bit per digit
+
+    final int[] row;
+    final int[] col;
+    final int[] boxOf;
+    final int[][] units;        // N rows, N columns, N boxes
+    final int[][] peers;        // 3N - 2n - 1 peers per cell
+
+    private static final BoardGeometry[] CACHE = new BoardGeometry[MAX_SIZE + 1];
+
+    public static final BoardGeometry CLASSIC = of(9);
+
+    public static synchronized BoardGeometry of(int size) {
+        int n = (int) Math.round(Math.sqrt(size));
+        if (n < 2 || n * n != size || size > MAX_SIZE)
+            throw new IllegalArgumentException("Board size must be a perfect square between 4 and " + MAX_SIZE + ": " + size);
+        if (CACHE[size] == null) CACHE[size] = new BoardGeometry(n);
+        return CACHE[size];
+    }
+
+    private BoardGeometry(int n) {
+        box = n;
+        size = n * n;
+        cells = size * size;
+        all = (size == 64) ? -1L : (1L << size) - 1;
+        row = new int[cells];
+        col = new int[cells];
+        boxOf = new int[cells];
+        units = new int[3 * size][size];
+        for (int i = 0; i < cells; i++) {
+            int r = i / size, c = i % size, b = (r / n) * n + c / n;
+            row[i] = r;
+            col[i] = c;
+            boxOf[i] = b;
+            units[r][c] = i;
+            units[size + c][r] = i;
+            units[2 * size + b][(r % n) * n + c % n] = i;
+        }
+        peers = new int[cells][3 * size - 2 * n - 1];
+        for (int i = 0; i < cells; i++) {
+            int k = 0;
+            for (int j = 0; j < cells; j++)
+                if (i != j && (row[i] == row[j] || col[i] == col[j] || boxOf[i] == boxOf[j])) peers[i][k++] = j;
+        }
+    }
+
+    public int box(int r, int c) {
+        return (r / box) * box + c / box;
+    }
+
+    /** Text symbol of digit v (0 = empty, written as '-'). */
+    public static char symbol(int v) {
+        if (v == 0) return '-';
+        return (char) (v <= 9 ? '0' + v : 'A' + v - 10);
+    }
+
+    /** Digit of a text symbol; '-', '.' and '0' are empty. Returns -1 if invalid. */
+    public static int digit(char ch) {
+        if (ch == '-' || ch == '.' || ch == '0') return 0;
+        if (ch >= '1' && ch <= '9') return ch - '0';
+        if (ch >= 'A' && ch <= 'Z') return ch - 'A' + 10;
+        if (ch >= 'a' && ch <= 'z') return ch - 'a' + 10;
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * BoardModel - primitive N x N board with O(1) conflict checks and win detection.
+ *
+ * Keeps a digit-occupancy bitmask per row, column and box (bit d-1 = digit d)
+ * plus counters for filled cells and cells that match the solution. Every
+ * set/clear updates them in constant time, so validity checks, candidate lists
+ * and "is it solved?" never have to scan the board.
+ *
+ * Per-unit digit counts back the masks, so a bit is only cleared when the last
+ * copy of a digit leaves the unit (loaded boards may contain duplicates).
+ *
+ * A Zobrist hash of the entries is kept up to date the same way, so the board
+ * can be used as a cache key (see SolutionCache) without rehashing every cell.
+ *
+ * The size comes from a BoardGeometry (9x9 by default); masks are longs so
+ * 16x16 and 25x25 boards use the same code.
+ */
+public class BoardModel {
+
+    // one random key per (cell, digit) for each board size; fixed seed so hashes are stable across runs
+    private static final long[][] ZOBRIST = new long[BoardGeometry.MAX_SIZE + 1][];
+
+    private static synchronized long[] zobrist(BoardGeometry g) {
+        if (ZOBRIST[g.size] == null) {
+            long[] keys = new long[g.cells * g.size];
+            java.util.Random rnd = new java.util.Random(0x5D0C0L);
+            for (int i = 0; i < keys.length; i++) keys[i] = rnd.nextLong();
+            ZOBRIST[g.size] = keys;
+        }
+        return ZOBRIST[g.size];
+    }
+
+    private final BoardGeometry g;
+    private final int n;
+    private final long[] keys;
+    private final int[] cells;
+    private final int[] solution;
+    private final long[] rowMask;
+    private final long[] colMask;
+    private final long[] boxMask;
+    private final byte[] rowCount;   // [unit * N + digit-1]
+    private final byte[] colCount;
+    private final byte[] boxCount;
+    private int filled;
+    private int correct;
+    private long hash;
+
+    public BoardModel() {
+        this(BoardGeometry.CLASSIC);
+    }
+
+    public BoardModel(BoardGeometry g) {
+        this.g = g;
+        this.n = g.size;
+        keys = zobrist(g);
+        cells = new int[g.cells];
+        solution = new int[g.cells];
+        rowMask = new long[n];
+        colMask = new long[n];
+        boxMask = new long[n];
+        rowCount = new byte[g.cells];
+        colCount = new byte[g.cells];
+        boxCount = new byte[g.cells];
+    }
+
+    public BoardGeometry geometry() {
+        return g;
+    }
+
+    /** Clears the board and sets the solution used for win detection (flat, N*N cells). */
+    public void reset(int[] solution) {
+        System.arraycopy(solution, 0, this.solution, 0, g.cells);
+        java.util.Arrays.fill(cells, 0);
+        java.util.Arrays.fill(rowMask, 0);
+        java.util.Arrays.fill(colMask, 0);
+        java.util.Arrays.fill(boxMask, 0);
+        java.util.Arrays.fill(rowCount, (byte) 0);
+        java.util.Arrays.fill(colCount, (byte) 0);
+        java.util.Arrays.fill(boxCount, (byte) 0);
+        filled = 0;
+        correct = 0;
+        hash = 0;
+    }
+
+    public int get(int r, int c) {
+        return cells[r * n + c];
+    }
+
+    /** Sets a cell to v (1..N), or clears it with v = 0. */
+    public void set(int r, int c, int v) {
+        int cell = r * n + c;
+        int old = cells[cell];
+        if (old == v) return;
+        if (old != 0) remove(cell, old);
+        if (v != 0) add(cell, v);
+    }
+
+    /** True if v does not already appear in the row, column or box of (r, c). */
+    public boolean canPlace(int r, int c, int v) {
+        return (usedMask(r, c) & (1L << (v - 1))) == 0;
+    }
+
+    /** Candidate digits for (r, c) as a bitmask (bit d-1 = digit d); 0 for filled cells. */
+    public long candidates(int r, int c) {
+        if (cells[r * n + c] != 0) return 0;
+        return g.all & ~usedMask(r, c);
+    }
+
+    public int filled() {
+        return filled;
+    }
+
+    public boolean isFull() {
+        return filled == g.cells;
+    }
+
+    public boolean isSolved() {
+        return correct == g.cells;
+    }
+
+    /** True if every entry matches the solution (so the solution also solves this board). */
+    public boolean isConsistent() {
+        return correct == filled;
+    }
+
+    /** Zobrist hash of the current entries. */
+    public long hash() {
+        return hash;
+    }
+
+    /** Copies the current entries into out (N x N, 0 = empty). */
+    public void copyTo(int[][] out) {
+        for (int r = 0; r < n; r++) System.arraycopy(cells, r * n, out[r], 0, n);
+    }
+
+    private long usedMask(int r, int c) {
+        return rowMask[r] | colMask[c] | boxMask[g.box(r, c)];
+    }
+
+    private void add(int cell, int v) {
+        int r = g.row[cell], c = g.col[cell], b = g.boxOf[cell], d = v - 1;
+        long bit = 1L << d;
+        cells[cell] = v;
+        if (rowCount[r * n + d]++ == 0) rowMask[r] |= bit;
+        if (colCount[c * n + d]++ == 0) colMask[c] |= bit;
+        if (boxCount[b * n + d]++ == 0) boxMask[b] |= bit;
+        filled++;
+        if (v == solution[cell]) correct++;
+        hash ^= keys[cell * n + d];
+    }
+
+    private void remove(int cell, int v) {
+        int r = g.row[cell], c = g.col[cell], b = g.boxOf[cell], d = v - 1;
+        long bit = 1L << d;
+        cells[cell] = 0;
+        if (--rowCount[r * n + d] == 0) rowMask[r] &= ~bit;
+        if (--colCount[c * n + d] == 0) colMask[c] &= ~bit;
+        if (--boxCount[b * n + d] == 0) boxMask[b] &= ~bit;
+        filled--;
+        if (v == solution[cell]) correct--;
+        hash ^= keys[cell * n + d];
+    }
+}
@@ -0,0 +1,171 @@
+import javax.swing.JComponent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * BoardView - the 9x9 board as one painted component.
+ *
+ * Replaces the 81 JButtons: one mouse listener maps a click to its cell by
+ * arithmetic, and a change repaints only that cell's rectangle. Colours and
+ * strokes are constants; the two fonts and their digit glyphs are built once
+ * per cell size, so painting allocates nothing while the size stays the same.
+ * The board keeps square cells, centred, at whatever size the window gives it.
+ *
+ * All state comes from the GameSession; the view only remembers which cell is
+ * flashing after a wrong digit.
+ */
+public class BoardView extends JComponent {
+
+    /** Click on an empty cell. */
+    public interface CellListener {
+        void cellClicked(int row, int col);
+    }
+
+    private static final Color GIVEN_BG = Color.LIGHT_GRAY;
+    private static final Color GIVEN_FG = Color.DARK_GRAY;
+    private static final Color ENTRY_BG = new Color(220, 255, 240);
+    private static final Color ENTRY_FG = new Color(10, 90, 160);
+    private static final Color EMPTY_BG = Color.WHITE;
+    private static final Color WRONG_BG = new Color(255, 200, 200);
+    private static final Color LINE = Color.BLACK;
+    private static final Stroke THIN = new BasicStroke(1f);
+    private static final Stroke THICK = new BasicStroke(3f);
+    private static final int FLASH_MS = 220;
+
+    private final GameSession session;
+    private final javax.swing.Timer flashTimer;
+    private int flashCell = -1;
+
+    // layout and glyph cache, rebuilt when the cell size changes
+    private int cell, originX, originY;
+    private int glyphCell;
+    private final GlyphVector[] givenGlyphs = new GlyphVector[10];
+    private final GlyphVector[] entryGlyphs = new GlyphVector[10];
+    private final float[] glyphX = new float[10], glyphY = new float[10];
+
+    public BoardView(GameSession session, CellListener listener) {
+        this.session = session;
+        setOpaque(true);
+        setPreferredSize(new Dimension(540, 540));
+        setMinimumSize(new Dimension(270, 270));
+
+        flashTimer = new javax.swing.Timer(FLASH_MS, e -> {
+            int was = flashCell;
+            flashCell = -1;
+            if (was >= 0) repaintCell(was / 9, was % 9);
+        });
+        flashTimer.setRepeats(false);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                layoutCells();
+                int x = e.getX() - originX, y = e.getY() - originY;
+                if (cell == 0 || x < 0 || y < 0 || x >= cell * 9 || y >= cell * 9) return;
+                int r = y / cell, c = x / cell;
+                if (session.get(r, c) == 0) listener.cellClicked(r, c);
+            }
+        });
+    }
+
+    // ---------- Updates ----------
+
+    /** Repaints one cell (including its share of the grid lines). */
+    public void repaintCell(int r, int c) {
+        layoutCells();
+        repaint(originX + c * cell - 2, originY + r * cell - 2, cell + 4, cell + 4);
+    }
+
+    /** Briefly shows the cell in the wrong-digit colour. */
+    public void flash(int r, int c) {
+        if (flashCell >= 0) repaintCell(flashCell / 9, flashCell % 9);
+        flashCell = r * 9 + c;
+        repaintCell(r, c);
+        flashTimer.restart();
+    }
+
+    // ---------- Painting ----------
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setColor(getParent() != null ? getParent().getBackground() : Color.WHITE);
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        layoutCells();
+        if (cell == 0) return;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        buildGlyphs(g2.getFontRenderContext());
+
+        // only the cells inside the clip
+        int c0 = Math.max(0, (clip.x - originX) / cell), c1 = Math.min(8, (clip.x + clip.width - originX) / cell);
+        int r0 = Math.max(0, (clip.y - originY) / cell), r1 = Math.min(8, (clip.y + clip.height - originY) / cell);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int x = originX + c * cell, y = originY + r * cell;
+                int v = session.get(r, c);
+                boolean given = session.isGiven(r, c);
+                Color bg = (r * 9 + c == flashCell) ? WRONG_BG : given ? GIVEN_BG : (v != 0) ? ENTRY_BG : EMPTY_BG;
+                g2.setColor(bg);
+                g2.fillRect(x, y, cell, cell);
+                if (v != 0) {
+                    g2.setColor(given ? GIVEN_FG : ENTRY_FG);
+                    g2.drawGlyphVector(given ? givenGlyphs[v] : entryGlyphs[v], x + glyphX[v], y + glyphY[v]);
+                }
+            }
+        }
+
+        // grid lines; the thick ones close the boxes and the outer frame
+        int size = cell * 9;
+        g2.setColor(LINE);
+        g2.setStroke(THIN);
+        for (int i = 1; i < 9; i++) {
+            if (i % 3 == 0) continue;
+            g2.drawLine(originX + i * cell, originY, originX + i * cell, originY + size);
+            g2.drawLine(originX, originY + i * cell, originX + size, originY + i * cell);
+        }
+        g2.setStroke(THICK);
+        for (int i = 0; i <= 9; i += 3) {
+            g2.drawLine(originX + i * cell, originY, originX + i * cell, originY + size);
+            g2.drawLine(originX, originY + i * cell, originX + size, originY + i * cell);
+        }
+    }
+
+    // Square cells, centred, with room for the outer thick line
+    private void layoutCells() {
+        int w = getWidth() - 4, h = getHeight() - 4;
+        cell = Math.max(0, Math.min(w, h) / 9);
+        originX = (getWidth() - cell * 9) / 2;
+        originY = (getHeight() - cell * 9) / 2;
+    }
+
+    // Digit glyphs and their centring offsets for the current cell size
+    private void buildGlyphs(FontRenderContext frc) {
+        if (glyphCell == cell) return;
+        glyphCell = cell;
+        float px = cell * 0.5f;
+        Font given = new Font("Arial", Font.BOLD, 20).deriveFont(px);
+        Font entry = new Font("Arial", Font.PLAIN, 20).deriveFont(px);
+        for (int v = 1; v <= 9; v++) {
+            String s = String.valueOf(v);
+            givenGlyphs[v] = given.createGlyphVector(frc, s);
+            entryGlyphs[v] = entry.createGlyphVector(frc, s);
+            Rectangle b = givenGlyphs[v].getPixelBounds(frc, 0, 0);
+            glyphX[v] = (cell - b.width) / 2f - b.x;
+            glyphY[v] = (cell - b.height) / 2f - b.y;
+        }
+    }
+}
@@ -6,9 +6,6 @@ import javax.swing.border.EmptyBorder;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.GradientPaint;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
@@ -22,17 +19,7 @@ public class DifficultyMenu {
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setLocationRelativeTo(null);
 
-        JPanel panel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2 = (Graphics2D) g;
-                Color c1 = new Color(60, 100, 160);
-                Color c2 = new Color(110, 140, 220);
-                g2.setPaint(new GradientPaint(0, 0, c1, 0, getHeight(), c2));
-                g2.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel panel = new MenuSkin.GradientPanel(new Color(60, 100, 160), new Color(110, 140, 220));
 
         panel.setLayout(new java.awt.GridBagLayout());
         panel.setBorder(new EmptyBorder(40, 60, 40, 60));
@@ -67,12 +54,12 @@ public class DifficultyMenu {
         JButton btn = new JButton(text);
         btn.setFont(new Font("Segoe UI", Font.BOLD, 24));
         btn.setForeground(Color.WHITE);
-        btn.setBackground(new Color(30, 144, 255));
+        btn.setBackground(MenuSkin.BUTTON);
         btn.setFocusPainted(false);
         btn.setPreferredSize(new Dimension(260, 56));
         btn.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) { btn.setBackground(new Color(65,105,225)); }
-            public void mouseExited(MouseEvent e) { btn.setBackground(new Color(30,144,255)); }
+            public void mouseEntered(MouseEvent e) { btn.setBackground(MenuSkin.BUTTON_HOVER); }
+            public void mouseExited(MouseEvent e) { btn.setBackground(MenuSkin.BUTTON); }
         });
         return btn;
     }
@@ -0,0 +1,506 @@
+/**
+ * DifficultyRater - rates a puzzle by the human techniques needed to solve it.
+ *
+ * The rater keeps a candidate bitmask per cell (bit d-1 = digit d), updated
+ * incrementally on every placement and elimination. At each step it applies
+ * the cheapest technique that makes progress and then starts over from the
+ * cheapest one again, so the hardest technique used is the one the puzzle
+ * really needs. The score is the sum of the technique weights over all steps;
+ * it grows with the number of placements, so only the hardest technique
+ * decides the difficulty.
+ *
+ * Not thread-safe: use one instance per thread (rate(int[]) does that for you).
+ */
+public class DifficultyRater {
+
+    /** Techniques in order of cost. */
+    public enum Technique {
+        HIDDEN_SINGLE(1),
+        NAKED_SINGLE(2),
+        LOCKED_CANDIDATES(5),
+        NAKED_PAIR(8),
+        HIDDEN_PAIR(10),
+        NAKED_TRIPLE(12),
+        HIDDEN_TRIPLE(15),
+        X_WING(20),
+        SWORDFISH(30),
+        XY_WING(35),
+        SIMPLE_COLORING(40);
+
+        final int weight;
+
+        Technique(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    /** Result of a rating. hardest is null when no technique was needed. */
+    public static final class Rating {
+        public final boolean solved;
+        public final Technique hardest;
+        public final int score;
+
+        Rating(boolean solved, Technique hardest, int score) {
+            this.solved = solved;
+            this.hardest = hardest;
+            this.score = score;
+        }
+
+        /**
+         * Maps the hardest technique onto the game's difficulty names: singles
+         * only is easy, locked candidates up to hidden triples is medium,
+         * anything beyond (or not solvable by these techniques) is hard.
+         */
+        public String difficulty() {
+            if (!solved) return "hard";
+            if (hardest == null || hardest.compareTo(Technique.NAKED_SINGLE) <= 0) return "easy";
+            return hardest.compareTo(Technique.HIDDEN_TRIPLE) <= 0 ? "medium" : "hard";
+        }
+
+        @Override
+        public String toString() {
+            return (solved ? "" : "unsolved, ") + "hardest=" + hardest + ", score=" + score;
+        }
+    }
+
+    private static final int ALL = BitmaskSolver.ALL;
+    private static final int[] ROW = BitmaskSolver.ROW;
+    private static final int[] COL = BitmaskSolver.COL;
+    private static final int[] BOX = BitmaskSolver.BOX;
+    private static final int[][] UNITS = BitmaskSolver.UNITS;
+    private static final int[][] PEERS = new int[81][20];
+
+    static {
+        for (int i = 0; i < 81; i++) {
+            int n = 0;
+            for (int j = 0; j < 81; j++)
+                if (i != j && (ROW[i] == ROW[j] || COL[i] == COL[j] || BOX[i] == BOX[j])) PEERS[i][n++] = j;
+        }
+    }
+
+    private static final ThreadLocal<DifficultyRater> LOCAL = ThreadLocal.withInitial(DifficultyRater::new);
+
+    private final int[] value = new int[81];
+    private final int[] cand = new int[81];
+    private int empty;
+    private boolean broken;
+
+    // scratch space for the techniques
+    private final int[] cellsOf = new int[9];
+    private final int[] lineMask = new int[9];
+    private final int[] lines = new int[9];
+    private final int[] color = new int[81];
+    private final int[] queue = new int[81];
+
+    /** Rates a flat 81-cell puzzle (0 = empty) on a per-thread rater. */
+    public static Rating rate(int[] grid) {
+        return LOCAL.get().rateGrid(grid);
+    }
+
+    public Rating rateGrid(int[] grid) {
+        load(grid);
+        Technique hardest = null;
+        int score = 0;
+        while (empty > 0 && !broken) {
+            Technique t = step();
+            if (t == null) break;
+            if (hardest == null || t.compareTo(hardest) > 0) hardest = t;
+            score += t.weight;
+        }
+        return new Rating(empty == 0 && !broken, hardest, score);
+    }
+
+    private void load(int[] grid) {
+        java.util.Arrays.fill(value, 0);
+        java.util.Arrays.fill(cand, ALL);
+        empty = 81;
+        broken = false;
+        for (int i = 0; i < 81; i++) {
+            int v = grid[i];
+            if (v == 0) continue;
+            if ((cand[i] & (1 << (v - 1))) == 0) {
+                broken = true;
+                return;
+            }
+            place(i, v);
+        }
+    }
+
+    // Applies the cheapest technique that makes progress
+    private Technique step() {
+        if (hiddenSingle()) return Technique.HIDDEN_SINGLE;
+        if (nakedSingle()) return Technique.NAKED_SINGLE;
+        if (lockedCandidates()) return Technique.LOCKED_CANDIDATES;
+        if (nakedSubset(2)) return Technique.NAKED_PAIR;
+        if (hiddenSubset(2)) return Technique.HIDDEN_PAIR;
+        if (nakedSubset(3)) return Technique.NAKED_TRIPLE;
+        if (hiddenSubset(3)) return Technique.HIDDEN_TRIPLE;
+        if (fish(2)) return Technique.X_WING;
+        if (fish(3)) return Technique.SWORDFISH;
+        if (xyWing()) return Technique.XY_WING;
+        if (simpleColoring()) return Technique.SIMPLE_COLORING;
+        return null;
+    }
+
+    // ---------- Board updates ----------
+
+    private void place(int cell, int v) {
+        int bit = 1 << (v - 1);
+        value[cell] = v;
+        cand[cell] = 0;
+        empty--;
+        for (int p : PEERS[cell]) {
+            if (value[p] == 0) {
+                cand[p] &= ~bit;
+                if (cand[p] == 0) broken = true;
+            }
+        }
+    }
+
+    private boolean eliminate(int cell, int mask) {
+        if (value[cell] != 0 || (cand[cell] & mask) == 0) return false;
+        cand[cell] &= ~mask;
+        if (cand[cell] == 0) broken = true;
+        return true;
+    }
+
+    // ---------- Singles ----------
+
+    private boolean hiddenSingle() {
+        for (int[] unit : UNITS) {
+            int once = 0, twice = 0;
+            for (int cell : unit) {
+                twice |= once & cand[cell];
+                once |= cand[cell];
+            }
+            int hidden = once & ~twice;
+            if (hidden == 0) continue;
+            int bit = hidden & -hidden;
+            for (int cell : unit) {
+                if ((cand[cell] & bit) != 0) {
+                    place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedSingle() {
+        for (int i = 0; i < 81; i++) {
+            int c = cand[i];
+            if (value[i] == 0 && c != 0 && (c & (c - 1)) == 0) {
+                place(i, Integer.numberOfTrailingZeros(c) + 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------- Intersections ----------
+
+    // Pointing (box -> line) and claiming (line -> box)
+    private boolean lockedCandidates() {
+        for (int u = 0; u < 27; u++) {
+            int[] unit = UNITS[u];
+            for (int d = 0; d < 9; d++) {
+                int bit = 1 << d;
+                int n = 0;
+                for (int cell : unit) if ((cand[cell] & bit) != 0) cellsOf[n++] = cell;
+                if (n < 2) continue;
+
+                boolean changed = false;
+                if (u >= 18) {
+                    // box: all in one row or column?
+                    if (sameRow(n)) changed = eliminateOutside(UNITS[ROW[cellsOf[0]]], u, bit);
+                    else if (sameCol(n)) changed = eliminateOutside(UNITS[9 + COL[cellsOf[0]]], u, bit);
+                } else if (sameBox(n)) {
+                    changed = eliminateOutside(UNITS[18 + BOX[cellsOf[0]]], u, bit);
+                }
+                if (changed) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean sameRow(int n) {
+        for (int k = 1; k < n; k++) if (ROW[cellsOf[k]] != ROW[cellsOf[0]]) return false;
+        return true;
+    }
+
+    private boolean sameCol(int n) {
+        for (int k = 1; k < n; k++) if (COL[cellsOf[k]] != COL[cellsOf[0]]) return false;
+        return true;
+    }
+
+    private boolean sameBox(int n) {
+        for (int k = 1; k < n; k++) if (BOX[cellsOf[k]] != BOX[cellsOf[0]]) return false;
+        return true;
+    }
+
+    // Removes bit from cells of target that are not in unit u
+    private boolean eliminateOutside(int[] target, int u, int bit) {
+        boolean changed = false;
+        for (int cell : target) {
+            if (!inUnit(cell, u)) changed |= eliminate(cell, bit);
+        }
+        return changed;
+    }
+
+    private static boolean inUnit(int cell, int u) {
+        if (u < 9) return ROW[cell] == u;
+        if (u < 18) return COL[cell] == u - 9;
+        return BOX[cell] == u - 18;
+    }
+
+    // ---------- Subsets ----------
+
+    // k cells of a unit whose candidates together are exactly k digits
+    private boolean nakedSubset(int k) {
+        for (int[] unit : UNITS) {
+            int n = 0;
+            for (int cell : unit) {
+                int c = cand[cell];
+                if (c != 0 && Integer.bitCount(c) <= k) cellsOf[n++] = cell;
+            }
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    if (k == 2) {
+                        int union = cand[cellsOf[a]] | cand[cellsOf[b]];
+                        if (Integer.bitCount(union) == 2 && clearSubset(unit, union, cellsOf[a], cellsOf[b], -1))
+                            return true;
+                        continue;
+                    }
+                    for (int c = b + 1; c < n; c++) {
+                        int union = cand[cellsOf[a]] | cand[cellsOf[b]] | cand[cellsOf[c]];
+                        if (Integer.bitCount(union) == 3 && clearSubset(unit, union, cellsOf[a], cellsOf[b], cellsOf[c]))
+                            return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean clearSubset(int[] unit, int digits, int x, int y, int z) {
+        boolean changed = false;
+        for (int cell : unit) {
+            if (cell != x && cell != y && cell != z) changed |= eliminate(cell, digits);
+        }
+        return changed;
+    }
+
+    // k digits of a unit that fit in exactly k cells
+    private boolean hiddenSubset(int k) {
+        for (int[] unit : UNITS) {
+            // lineMask[d] = positions (0..8 within unit) where digit d is a candidate
+            int digits = 0;
+            for (int d = 0; d < 9; d++) {
+                int m = 0;
+                for (int p = 0; p < 9; p++) if ((cand[unit[p]] & (1 << d)) != 0) m |= 1 << p;
+                lineMask[d] = m;
+                int cnt = Integer.bitCount(m);
+                if (cnt >= 2 && cnt <= k) lines[digits++] = d;
+            }
+            for (int a = 0; a < digits; a++) {
+                for (int b = a + 1; b < digits; b++) {
+                    if (k == 2) {
+                        int pos = lineMask[lines[a]] | lineMask[lines[b]];
+                        int keep = (1 << lines[a]) | (1 << lines[b]);
+                        if (Integer.bitCount(pos) == 2 && keepOnly(unit, pos, keep)) return true;
+                        continue;
+                    }
+                    for (int c = b + 1; c < digits; c++) {
+                        int pos = lineMask[lines[a]] | lineMask[lines[b]] | lineMask[lines[c]];
+                        int keep = (1 << lines[a]) | (1 << lines[b]) | (1 << lines[c]);
+                        if (Integer.bitCount(pos) == 3 && keepOnly(unit, pos, keep)) return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean keepOnly(int[] unit, int positions, int keep) {
+        boolean changed = false;
+        for (int p = 0; p < 9; p++) {
+            if ((positions & (1 << p)) != 0) changed |= eliminate(unit[p], ALL & ~keep);
+        }
+        return changed;
+    }
+
+    // ---------- Fish (X-Wing, Swordfish) ----------
+
+    private boolean fish(int k) {
+        for (int d = 0; d < 9; d++) {
+            if (fish(k, d, true) || fish(k, d, false)) return true;
+        }
+        return false;
+    }
+
+    // byRow: base sets are rows, cover sets are columns (and vice versa)
+    private boolean fish(int k, int d, boolean byRow) {
+        int bit = 1 << d;
+        int n = 0;
+        for (int line = 0; line < 9; line++) {
+            int m = 0;
+            for (int p = 0; p < 9; p++) {
+                int cell = byRow ? line * 9 + p : p * 9 + line;
+                if ((cand[cell] & bit) != 0) m |= 1 << p;
+            }
+            int cnt = Integer.bitCount(m);
+            if (cnt >= 2 && cnt <= k) {
+                lines[n] = line;
+                lineMask[n++] = m;
+            }
+        }
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                if (k == 2) {
+                    int cover = lineMask[a] | lineMask[b];
+                    if (Integer.bitCount(cover) == 2 && clearFish(byRow, cover, bit, lines[a], lines[b], -1))
+                        return true;
+                    continue;
+                }
+                for (int c = b + 1; c < n; c++) {
+                    int cover = lineMask[a] | lineMask[b] | lineMask[c];
+                    if (Integer.bitCount(cover) == 3 && clearFish(byRow, cover, bit, lines[a], lines[b], lines[c]))
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean clearFish(boolean byRow, int cover, int bit, int x, int y, int z) {
+        boolean changed = false;
+        for (int p = 0; p < 9; p++) {
+            if ((cover & (1 << p)) == 0) continue;
+            for (int line = 0; line < 9; line++) {
+                if (line == x || line == y || line == z) continue;
+                int cell = byRow ? line * 9 + p : p * 9 + line;
+                changed |= eliminate(cell, bit);
+            }
+        }
+        return changed;
+    }
+
+    // ---------- Chains ----------
+
+    // Pivot {a,b} with pincers {a,c} and {b,c}: c is removed from cells seeing both pincers
+    private boolean xyWing() {
+        for (int pivot = 0; pivot < 81; pivot++) {
+            int pc = cand[pivot];
+            if (Integer.bitCount(pc) != 2) continue;
+            for (int x : PEERS[pivot]) {
+                int xc = cand[x];
+                if (Integer.bitCount(xc) != 2 || xc == pc || Integer.bitCount(xc & pc) != 1) continue;
+                for (int y : PEERS[pivot]) {
+                    int yc = cand[y];
+                    if (y == x || Integer.bitCount(yc) != 2 || yc == pc || yc == xc) continue;
+                    // y must hold the other pivot digit and share the non-pivot digit with x
+                    int z = xc & ~pc;
+                    if ((yc & pc) != (pc & ~xc) || (yc & z) == 0) continue;
+                    boolean changed = false;
+                    for (int cell : PEERS[x]) {
+                        if (cell != y && cell != pivot && sees(cell, y)) changed |= eliminate(cell, z);
+                    }
+                    if (changed) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Colours conjugate pairs of one digit; a colour that sees itself is false (wrap),
+    // and a cell seeing both colours loses the digit (trap)
+    private boolean simpleColoring() {
+        for (int d = 0; d < 9; d++) {
+            int bit = 1 << d;
+            java.util.Arrays.fill(color, 0);
+            int nextColor = 1;
+            for (int start = 0; start < 81; start++) {
+                if ((cand[start] & bit) == 0 || color[start] != 0 || !hasConjugate(start, bit)) continue;
+
+                // BFS over conjugate links, colours nextColor / nextColor+1
+                int head = 0, tail = 0;
+                color[start] = nextColor;
+                queue[tail++] = start;
+                while (head < tail) {
+                    int cell = queue[head++];
+                    for (int u : unitsOf(cell)) {
+                        int other = conjugate(UNITS[u], cell, bit);
+                        if (other >= 0 && color[other] == 0) {
+                            color[other] = color[cell] == nextColor ? nextColor + 1 : nextColor;
+                            queue[tail++] = other;
+                        }
+                    }
+                }
+                if (tail > 2 && (colorWrap(d, nextColor, tail) || colorTrap(bit, nextColor))) return true;
+                nextColor += 2;
+            }
+        }
+        return false;
+    }
+
+    private boolean colorWrap(int d, int base, int n) {
+        for (int c = base; c <= base + 1; c++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int a = queue[i], b = queue[j];
+                    if (color[a] == c && color[b] == c && sees(a, b)) {
+                        boolean changed = false;
+                        for (int k = 0; k < n; k++) {
+                            if (color[queue[k]] == c) changed |= eliminate(queue[k], 1 << d);
+                        }
+                        return changed;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean colorTrap(int bit, int base) {
+        boolean changed = false;
+        for (int cell = 0; cell < 81; cell++) {
+            if ((cand[cell] & bit) == 0 || color[cell] != 0) continue;
+            boolean seesA = false, seesB = false;
+            for (int p : PEERS[cell]) {
+                if (color[p] == base) seesA = true;
+                else if (color[p] == base + 1) seesB = true;
+            }
+            if (seesA && seesB) changed |= eliminate(cell, bit);
+        }
+        return changed;
+    }
+
+    private boolean hasConjugate(int cell, int bit) {
+        for (int u : unitsOf(cell)) if (conjugate(UNITS[u], cell, bit) >= 0) return true;
+        return false;
+    }
+
+    // The other cell of unit holding bit, if unit has exactly two
+    private int conjugate(int[] unit, int cell, int bit) {
+        int other = -1, n = 0;
+        for (int c : unit) {
+            if ((cand[c] & bit) == 0) continue;
+            if (++n > 2) return -1;
+            if (c != cell) other = c;
+        }
+        return n == 2 ? other : -1;
+    }
+
+    private final int[] unitScratch = new int[3];
+
+    private int[] unitsOf(int cell) {
+        unitScratch[0] = ROW[cell];
+        unitScratch[1] = 9 + COL[cell];
+        unitScratch[2] = 18 + BOX[cell];
+        return unitScratch;
+    }
+
+    private static boolean sees(int a, int b) {
+        return a != b && (ROW[a] == ROW[b] || COL[a] == COL[b] || BOX[a] == BOX[b]);
+    }
+}
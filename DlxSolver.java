@@ -0,0 +1,200 @@
+/**
+ * DlxSolver - exact cover solver (Knuth's Algorithm X with Dancing Links).
+ *
+ * Sudoku as exact cover: 729 rows (cell x digit) and 324 columns
+ * (cell filled, row has digit, column has digit, box has digit).
+ * The whole matrix lives in preallocated int arrays (left/right/up/down/column
+ * links) that are built once per instance. Givens are applied by covering
+ * their rows and are uncovered again after the search, so the same instance
+ * can be reused without rebuilding anything.
+ *
+ * Not thread-safe: use one instance per thread.
+ */
+public class DlxSolver implements SolverEngine {
+
+    private static final int COLUMNS = 324;
+    private static final int ROWS = 729;
+    private static final int ROOT = 0;
+    private static final int NODES = 1 + COLUMNS + ROWS * 4;
+
+    private final int[] left = new int[NODES];
+    private final int[] right = new int[NODES];
+    private final int[] up = new int[NODES];
+    private final int[] down = new int[NODES];
+    private final int[] column = new int[NODES];
+    private final int[] rowOf = new int[NODES];
+    private final int[] size = new int[COLUMNS + 1];
+    private final int[] rowStart = new int[ROWS];     // first node of each matrix row
+
+    private final int[] givenRows = new int[81];
+    private final int[] chosen = new int[81];         // rows picked by the search, per depth
+    private final int[] rowUsed = new int[9], colUsed = new int[9], boxUsed = new int[9];
+    private int givenCount;
+    private int[] out;
+    private int solutions;
+    private int limit;
+    private long nodes;
+
+    public DlxSolver() {
+        // column headers in a circular list around ROOT
+        for (int c = 0; c <= COLUMNS; c++) {
+            left[c] = c == 0 ? COLUMNS : c - 1;
+            right[c] = c == COLUMNS ? 0 : c + 1;
+            up[c] = down[c] = c;
+            column[c] = c;
+        }
+        int n = COLUMNS + 1;
+        for (int cell = 0; cell < 81; cell++) {
+            int r = cell / 9, c = cell % 9, b = (r / 3) * 3 + c / 3;
+            for (int d = 0; d < 9; d++) {
+                int row = cell * 9 + d;
+                rowStart[row] = n;
+                int[] cols = {
+                    1 + cell,
+                    1 + 81 + r * 9 + d,
+                    1 + 162 + c * 9 + d,
+                    1 + 243 + b * 9 + d
+                };
+                for (int k = 0; k < 4; k++) {
+                    int node = n + k;
+                    int col = cols[k];
+                    left[node] = n + (k + 3) % 4;
+                    right[node] = n + (k + 1) % 4;
+                    // append at bottom of the column
+                    up[node] = up[col];
+                    down[node] = col;
+                    down[up[col]] = node;
+                    up[col] = node;
+                    column[node] = col;
+                    rowOf[node] = row;
+                    size[col]++;
+                }
+                n += 4;
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "dlx";
+    }
+
+    @Override
+    public boolean solve(int[] board, int[] out) {
+        return countSolutions(board, 1, out) > 0;
+    }
+
+    @Override
+    public int countSolutions(int[] board, int limit, int[] out) {
+        if (board.length != 81) throw new IllegalArgumentException("Expected 81 cells, got " + board.length);
+        this.limit = limit;
+        this.out = out;
+        this.solutions = 0;
+        this.nodes = 0;
+        long start = Metrics.start();
+
+        if (applyGivens(board)) search(0);
+        // restore the full matrix for the next call
+        while (givenCount > 0) unselect(rowStart[givenRows[--givenCount]]);
+        Metrics.count(Metrics.SOLVE_NODES, nodes);
+        Metrics.SOLVE.record(start);
+        return solutions;
+    }
+
+    /** Search nodes visited by the last call. */
+    public long nodes() {
+        return nodes;
+    }
+
+    // Covers the rows of all givens. False if two givens conflict.
+    private boolean applyGivens(int[] board) {
+        java.util.Arrays.fill(rowUsed, 0);
+        java.util.Arrays.fill(colUsed, 0);
+        java.util.Arrays.fill(boxUsed, 0);
+        givenCount = 0;
+        for (int cell = 0; cell < 81; cell++) {
+            int v = board[cell];
+            if (v < 0 || v > 9) throw new IllegalArgumentException("Invalid digit " + v + " at cell " + cell);
+            if (v == 0) continue;
+            int r = cell / 9, c = cell % 9, b = (r / 3) * 3 + c / 3;
+            int bit = 1 << (v - 1);
+            if (((rowUsed[r] | colUsed[c] | boxUsed[b]) & bit) != 0) return false;
+            rowUsed[r] |= bit;
+            colUsed[c] |= bit;
+            boxUsed[b] |= bit;
+            int row = cell * 9 + v - 1;
+            select(rowStart[row]);
+            givenRows[givenCount++] = row;
+        }
+        return true;
+    }
+
+    // Returns true when the search should stop (limit reached or thread interrupted)
+    private boolean search(int depth) {
+        if ((++nodes & 0x3FF) == 0 && Thread.currentThread().isInterrupted()) return true;
+        if (right[ROOT] == ROOT) {
+            if (++solutions == 1 && out != null) writeSolution(depth);
+            return solutions >= limit;
+        }
+
+        // column with fewest rows left
+        int best = right[ROOT];
+        for (int c = right[best]; c != ROOT && size[best] > 1; c = right[c]) {
+            if (size[c] < size[best]) best = c;
+        }
+        if (size[best] == 0) return false;
+
+        cover(best);
+        for (int r = down[best]; r != best; r = down[r]) {
+            chosen[depth] = rowOf[r];
+            for (int j = right[r]; j != r; j = right[j]) cover(column[j]);
+            boolean stop = search(depth + 1);
+            for (int j = left[r]; j != r; j = left[j]) uncover(column[j]);
+            if (stop) {
+                uncover(best);
+                return true;
+            }
+        }
+        uncover(best);
+        return false;
+    }
+
+    private void writeSolution(int depth) {
+        for (int i = 0; i < givenCount; i++) out[givenRows[i] / 9] = givenRows[i] % 9 + 1;
+        for (int i = 0; i < depth; i++) out[chosen[i] / 9] = chosen[i] % 9 + 1;
+    }
+
+    private void select(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j]) cover(column[j]);
+    }
+
+    private void unselect(int node) {
+        for (int j = left[node]; j != node; j = left[j]) uncover(column[j]);
+        uncover(column[node]);
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
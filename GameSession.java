@@ -0,0 +1,344 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameSession - headless state of one Sudoku game.
+ *
+ * Owns the givens, the solution, the player's entries (BoardModel), the error
+ * and hint counters, the undo history and the clock, and publishes every
+ * change to its listeners.
+ * It has no Swing dependency, so tests, bots and benchmarks can drive many
+ * sessions in one JVM; Sudoku is just a view that listens to one of them.
+ *
+ * A session is confined to one thread (the EDT for the Swing view).
+ */
+public class GameSession {
+
+    public static final int MAX_HINTS = 5;
+
+    /** What changed; row/col are -1 when the change is not about one cell. */
+    public enum Change { PLACED, WRONG, HINT, SOLVED, RESET, UNDO, REDO }
+
+    public interface Listener {
+        void sessionChanged(GameSession session, Change change, int row, int col);
+    }
+
+    public enum HintStatus { OK, LIMIT_REACHED, NO_SOLUTION, NO_EMPTY_CELL, STALE, TIMEOUT }
+
+    /** Result of requestHint(); row/col/value are only set when status is OK. */
+    public static final class Hint {
+        public final HintStatus status;
+        public final int row, col, value;
+
+        Hint(HintStatus status, int row, int col, int value) {
+            this.status = status;
+            this.row = row;
+            this.col = col;
+            this.value = value;
+        }
+    }
+
+    private String difficulty;
+    private String puzzleCode;                                 // set for seeded puzzles (see PuzzleSeed)
+    private final int[] givens = new int[81];
+    private final int[] solution = new int[81];
+    private final BoardModel board = new BoardModel();
+    private int errors;
+    private int hintsUsed;
+    private int hintRow = -1, hintCol = -1, hintValue = -1;   // pending hint for applyHint()
+    private long version;                                      // bumped on every board change
+
+    // undo history, one packed int per entered digit (see pack): [0, undoTop) can be
+    // undone, [undoTop, redoTop) redone; a new move drops the redo part
+    private int[] history = new int[64];
+    private int undoTop, redoTop;
+
+    // clock: elapsed = base + running time since clockStart
+    private long baseMillis;
+    private long clockStart = -1;
+
+    private final List<Listener> listeners = new ArrayList<>(1);
+
+    public GameSession(String difficulty, int[] givens, int[] solution) {
+        reset(difficulty, givens, givens, solution, 0, 0, 0);
+    }
+
+    /** New session with a puzzle from the pool (see PuzzlePool). */
+    public static GameSession newGame(String difficulty) {
+        String d = (difficulty == null) ? "medium" : difficulty.toLowerCase();
+        Sudoku.GeneratedSudoku gs = PuzzlePool.take(d);
+        return new GameSession(d, PuzzleBank.toCells(gs.puzzle), PuzzleBank.toCells(gs.solution));
+    }
+
+    /** New session for the seeded puzzle; the same seed and difficulty always give the same board. */
+    public static GameSession newGame(String difficulty, long seed) {
+        Sudoku.GeneratedSudoku gs = PuzzleSeed.generate(seed, difficulty);
+        String code = PuzzleSeed.code(seed, difficulty);
+        GameSession session = new GameSession(PuzzleSeed.difficultyOf(code), PuzzleBank.toCells(gs.puzzle),
+                PuzzleBank.toCells(gs.solution));
+        session.puzzleCode = code;
+        return session;
+    }
+
+    /**
+     * Replaces the whole game state (used by load). entries holds the givens
+     * plus the player's placements; the clock is left stopped.
+     */
+    public void reset(String difficulty, int[] givens, int[] entries, int[] solution,
+                      int elapsedSeconds, int errors, int hintsUsed) {
+        this.difficulty = difficulty;
+        this.puzzleCode = null;
+        System.arraycopy(givens, 0, this.givens, 0, 81);
+        System.arraycopy(solution, 0, this.solution, 0, 81);
+        board.reset(solution);
+        for (int i = 0; i < 81; i++) board.set(i / 9, i % 9, givens[i] != 0 ? givens[i] : entries[i]);
+        this.errors = errors;
+        this.hintsUsed = hintsUsed;
+        hintRow = hintCol = hintValue = -1;
+        undoTop = redoTop = 0;
+        baseMillis = elapsedSeconds * 1000L;
+        clockStart = -1;
+        version++;
+        fire(Change.RESET, -1, -1);
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+
+    // ---------- Moves ----------
+
+    /**
+     * Tries to place v at (r, c). Correct digits are entered (PLACED, then SOLVED
+     * if that completes the board); wrong ones count as an error (WRONG).
+     * Returns false if the move was ignored (cell filled or game over).
+     */
+    public boolean place(int r, int c, int v) {
+        if (isSolved() || board.get(r, c) != 0) return false;
+        if (v == solution[r * 9 + c]) {
+            enter(r, c, v);
+        } else {
+            errors++;
+            fire(Change.WRONG, r, c);
+        }
+        return true;
+    }
+
+    private void enter(int r, int c, int v) {
+        if (undoTop == history.length) history = java.util.Arrays.copyOf(history, history.length * 2);
+        history[undoTop++] = pack(r * 9 + c, board.get(r, c), v);
+        redoTop = undoTop;
+        board.set(r, c, v);
+        version++;
+        fire(Change.PLACED, r, c);
+        checkSolved();
+    }
+
+    private void checkSolved() {
+        if (board.isSolved()) {
+            stopClock();
+            fire(Change.SOLVED, -1, -1);
+        }
+    }
+
+    // ---------- Undo / redo ----------
+
+    // cell in bits 0-6, old value in bits 7-10, new value in bits 11-14
+    private static int pack(int cell, int oldValue, int newValue) {
+        return cell | oldValue << 7 | newValue << 11;
+    }
+
+    public boolean canUndo() {
+        return undoTop > 0 && !isSolved();
+    }
+
+    public boolean canRedo() {
+        return redoTop > undoTop && !isSolved();
+    }
+
+    /** Reverts the last entered digit (UNDO). Errors and hints used stay counted. */
+    public boolean undo() {
+        if (!canUndo()) return false;
+        int move = history[--undoTop];
+        int cell = move & 0x7F;
+        board.set(cell / 9, cell % 9, (move >>> 7) & 0xF);
+        version++;
+        fire(Change.UNDO, cell / 9, cell % 9);
+        return true;
+    }
+
+    /** Enters the last undone digit again (REDO, then SOLVED if that completes the board). */
+    public boolean redo() {
+        if (!canRedo()) return false;
+        int move = history[undoTop++];
+        int cell = move & 0x7F;
+        board.set(cell / 9, cell % 9, (move >>> 11) & 0xF);
+        version++;
+        fire(Change.REDO, cell / 9, cell % 9);
+        checkSolved();
+        return true;
+    }
+
+    // ---------- Hints ----------
+
+    /**
+     * Solves the current board on the calling thread and proposes a value for
+     * the first empty cell. HintService does the same off the EDT.
+     */
+    public Hint requestHint() {
+        if (hintsUsed >= MAX_HINTS) return new Hint(HintStatus.LIMIT_REACHED, -1, -1, 0);
+        long v = version;
+        int[] current = snapshot();
+        int[] solved = knownSolution(current);
+        if (solved == null) {
+            solved = new int[81];
+            if (Sudoku.SudokuSolver.engine().solve(current, solved)) SolutionCache.put(board.hash(), solved);
+            else solved = null;
+        }
+        return acceptHint(v, current, solved);
+    }
+
+    /**
+     * Solution of the current board (snapshot) without searching, or null.
+     * If every entry matches the puzzle's solution, that solution is reused;
+     * otherwise the shared SolutionCache is consulted.
+     */
+    public int[] knownSolution(int[] snapshot) {
+        if (board.isConsistent()) {
+            SolutionCache.recordFastPath();
+            return solution.clone();
+        }
+        return SolutionCache.get(board.hash(), snapshot);
+    }
+
+    /** Zobrist hash of the current entries (SolutionCache key). */
+    public long boardHash() {
+        return board.hash();
+    }
+
+    /**
+     * Turns a solve of snapshot (taken at version) into a hint. solved is null
+     * if the snapshot had no solution. Returns STALE if the board changed since.
+     */
+    public Hint acceptHint(long version, int[] snapshot, int[] solved) {
+        if (version != this.version) return new Hint(HintStatus.STALE, -1, -1, 0);
+        if (hintsUsed >= MAX_HINTS) return new Hint(HintStatus.LIMIT_REACHED, -1, -1, 0);
+        if (solved == null) return new Hint(HintStatus.NO_SOLUTION, -1, -1, 0);
+
+        for (int i = 0; i < 81; i++) {
+            if (snapshot[i] == 0) {
+                hintRow = i / 9;
+                hintCol = i % 9;
+                hintValue = solved[i];
+                hintsUsed++;
+                fire(Change.HINT, hintRow, hintCol);
+                return new Hint(HintStatus.OK, hintRow, hintCol, hintValue);
+            }
+        }
+        return new Hint(HintStatus.NO_EMPTY_CELL, -1, -1, 0);
+    }
+
+    public boolean hasPendingHint() {
+        return hintRow != -1;
+    }
+
+    /** Enters the last hint. Returns false if there is none. */
+    public boolean applyHint() {
+        if (hintRow == -1) return false;
+        int r = hintRow, c = hintCol, v = hintValue;
+        hintRow = hintCol = hintValue = -1;
+        if (board.get(r, c) == 0) enter(r, c, v);
+        return true;
+    }
+
+    // ---------- Clock ----------
+
+    public void startClock() {
+        if (clockStart < 0) clockStart = System.nanoTime();
+    }
+
+    public void stopClock() {
+        if (clockStart >= 0) {
+            baseMillis += (System.nanoTime() - clockStart) / 1_000_000L;
+            clockStart = -1;
+        }
+    }
+
+    public int elapsedSeconds() {
+        return (int) (elapsedMillis() / 1000);
+    }
+
+    public long elapsedMillis() {
+        long ms = baseMillis;
+        if (clockStart >= 0) ms += (System.nanoTime() - clockStart) / 1_000_000L;
+        return ms;
+    }
+
+    // ---------- State ----------
+
+    /** Changes whenever an entry is placed or the game is reset. */
+    public long version() {
+        return version;
+    }
+
+    /** Current entries (givens + placements) as a new flat 81-cell array. */
+    public int[] snapshot() {
+        int[] out = new int[81];
+        for (int i = 0; i < 81; i++) out[i] = board.get(i / 9, i % 9);
+        return out;
+    }
+
+    public String difficulty() {
+        return difficulty;
+    }
+
+    /** Shareable code of a seeded puzzle, or null if it came from the pool or a save. */
+    public String puzzleCode() {
+        return puzzleCode;
+    }
+
+    public int get(int r, int c) {
+        return board.get(r, c);
+    }
+
+    public boolean isGiven(int r, int c) {
+        return givens[r * 9 + c] != 0;
+    }
+
+    public int given(int r, int c) {
+        return givens[r * 9 + c];
+    }
+
+    public int solution(int r, int c) {
+        return solution[r * 9 + c];
+    }
+
+    /** Candidate digits for (r, c) against the current entries, as a bitmask. */
+    public int candidates(int r, int c) {
+        return (int) board.candidates(r, c);
+    }
+
+    public boolean isSolved() {
+        return board.isSolved();
+    }
+
+    public int filled() {
+        return board.filled();
+    }
+
+    public int errors() {
+        return errors;
+    }
+
+    public int hintsUsed() {
+        return hintsUsed;
+    }
+
+    private void fire(Change change, int row, int col) {
+        for (int i = 0; i < listeners.size(); i++) listeners.get(i).sessionChanged(this, change, row, col);
+    }
+}
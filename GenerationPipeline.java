@@ -0,0 +1,274 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * GenerationPipeline - the puzzle generator, as five explicit stages:
+ *
+ *   fill   : random solution grid (GridFiller)
+ *   dig    : blank cells while the solution stays unique (PuzzleDigger, or
+ *            PuzzleReducer for symmetric / minimal puzzles)
+ *   verify : independent uniqueness check of the dug puzzle
+ *   rate   : technique rating; the first grid whose rating matches, else
+ *            the best of MAX_ATTEMPTS
+ *   emit   : String rows, handed to the sink
+ *
+ * generate() runs the stages inline on the calling thread; that is the
+ * generator behind Sudoku.SudokuGenerator and PuzzleSeed, and with seeded
+ * random sources it gives the same puzzle every run.
+ *
+ * A pipeline instance runs every stage on its own daemon threads, connected by
+ * bounded queues, so a slow rate stage no longer holds up filling: each stage
+ * works ahead until its output queue is full and then blocks (backpressure
+ * up to the sink). stats() reports per-stage throughput and queue depth.
+ * PuzzlePool and the batch "generate" command use one.
+ */
+public final class GenerationPipeline {
+
+    // medium needs locked candidates or subsets: ~1 grid in 8 at its dig depth
+    static final int MAX_ATTEMPTS = 40;
+
+    /** Receives finished puzzles on the emit thread; may block (backpressure). */
+    public interface Sink {
+        void accept(Sudoku.GeneratedSudoku puzzle) throws InterruptedException;
+    }
+
+    // One grid on its way through the stages
+    static final class Candidate {
+        final int[] solution;
+        int[] puzzle;
+        int holes;
+        boolean rated;          // technique rating matches the difficulty
+
+        Candidate(int[] solution) {
+            this.solution = solution;
+        }
+    }
+
+    // ---------- Stages ----------
+
+    static Candidate fill(GridFiller filler) {
+        int[] grid = new int[81];
+        filler.fill(grid);
+        return new Candidate(grid);
+    }
+
+    static Candidate dig(Candidate c, String difficulty, RandomGenerator rand, SolverEngine engine) {
+        c.puzzle = c.solution.clone();
+        c.holes = PuzzleDigger.dig(c.puzzle, Sudoku.SudokuGenerator.removeCountFor(difficulty), rand, engine);
+        return c;
+    }
+
+    // Symmetric or minimal dig; the hole target still applies unless minimal
+    static Candidate dig(Candidate c, String difficulty, RandomGenerator rand, PuzzleReducer reducer,
+                         PuzzleDigger.Symmetry symmetry, boolean minimal) {
+        c.puzzle = c.solution.clone();
+        int holes = minimal ? PuzzleReducer.MINIMAL : Sudoku.SudokuGenerator.removeCountFor(difficulty);
+        c.holes = reducer.reduce(c.puzzle, symmetry, holes, rand);
+        return c;
+    }
+
+    static boolean verify(Candidate c, SolverEngine engine) {
+        return engine.countSolutions(c.puzzle, 2, null) == 1;
+    }
+
+    static Candidate rate(Candidate c, String difficulty) {
+        c.rated = DifficultyRater.rate(c.puzzle).difficulty().equals(difficulty);
+        return c;
+    }
+
+    static Sudoku.GeneratedSudoku emit(Candidate c) {
+        return new Sudoku.GeneratedSudoku(GridGenerator.toRows(c.puzzle, BoardGeometry.CLASSIC),
+                GridGenerator.toRows(c.solution, BoardGeometry.CLASSIC));
+    }
+
+    /**
+     * Best-of selection of the rate stage: the rating is the difficulty, so a
+     * candidate whose rating matches is taken at once; otherwise the one with
+     * the most holes after MAX_ATTEMPTS.
+     */
+    static final class Selector {
+        private Candidate best;
+        private int attempts;
+
+        // The candidate to emit, or null to keep going
+        Candidate offer(Candidate c) {
+            if (best == null || (c.rated && !best.rated) || (c.rated == best.rated && c.holes > best.holes)) best = c;
+            attempts++;
+            if (best.rated || attempts >= MAX_ATTEMPTS) {
+                Candidate out = best;
+                best = null;
+                attempts = 0;
+                return out;
+            }
+            return null;
+        }
+    }
+
+    /** One puzzle, every stage on the calling thread. */
+    public static Sudoku.GeneratedSudoku generate(String difficulty, GridFiller filler, RandomGenerator rand) {
+        long start = Metrics.start();
+        String d = normalize(difficulty);
+        SolverEngine engine = Sudoku.SudokuSolver.engine();
+        Selector selector = new Selector();
+        Candidate out;
+        do {
+            Candidate c = dig(fill(filler), d, rand, engine);
+            if (!verify(c, engine)) continue;
+            out = selector.offer(rate(c, d));
+            if (out != null) break;
+        } while (true);
+        Metrics.generate(d).record(start);
+        return emit(out);
+    }
+
+    static String normalize(String difficulty) {
+        String d = (difficulty == null) ? "medium" : difficulty.toLowerCase();
+        return (d.equals("easy") || d.equals("hard")) ? d : "medium";
+    }
+
+    // ---------- Threaded pipeline ----------
+
+    /** A stage's workers and the queue they read from. */
+    static final class Stage {
+        final String name;
+        final int threads;
+        final BlockingQueue<Candidate> input;    // null for fill (it has no input)
+        final LongAdder done = new LongAdder();
+
+        Stage(String name, int threads, BlockingQueue<Candidate> input) {
+            this.name = name;
+            this.threads = threads;
+            this.input = input;
+        }
+    }
+
+    private final String difficulty;
+    private final PuzzleDigger.Symmetry symmetry;
+    private final boolean minimal;
+    private final Sink sink;
+    private final Stage fillStage, digStage, verifyStage, rateStage, emitStage;
+    private final int queue;                     // capacity of each queue between stages
+    private final BlockingQueue<Candidate> toDig, toVerify, toRate, toEmit;
+    private final LongAdder rejected = new LongAdder();
+    private final List<Thread> workers = new ArrayList<>();
+    private long startNanos;
+
+    /**
+     * Pipeline for difficulty. diggers is the thread count of the dig stage,
+     * the expensive one; the other stages get one thread each.
+     */
+    public GenerationPipeline(String difficulty, int diggers, Sink sink) {
+        this(difficulty, diggers, PuzzleDigger.Symmetry.NONE, false, sink);
+    }
+
+    /** Pipeline whose dig stage removes clues in symmetric pairs and/or down to a minimal puzzle. */
+    public GenerationPipeline(String difficulty, int diggers, PuzzleDigger.Symmetry symmetry, boolean minimal, Sink sink) {
+        this.difficulty = normalize(difficulty);
+        this.symmetry = symmetry;
+        this.minimal = minimal;
+        this.sink = sink;
+        // enough to keep every digger busy, small enough that little work is done ahead
+        queue = Math.max(4, 2 * diggers);
+        toDig = new ArrayBlockingQueue<>(queue);
+        toVerify = new ArrayBlockingQueue<>(queue);
+        toRate = new ArrayBlockingQueue<>(queue);
+        toEmit = new ArrayBlockingQueue<>(queue);
+        fillStage = new Stage("fill", 1, null);
+        digStage = new Stage("dig", Math.max(1, diggers), toDig);
+        verifyStage = new Stage("verify", 1, toVerify);
+        rateStage = new Stage("rate", 1, toRate);
+        emitStage = new Stage("emit", 1, toEmit);
+    }
+
+    /** Starts the stage threads (at the given priority). */
+    public synchronized GenerationPipeline start(int priority) {
+        if (!workers.isEmpty()) return this;
+        startNanos = System.nanoTime();
+        spawn(fillStage, priority, () -> {
+            GridFiller filler = GridFiller.local();
+            while (true) {
+                toDig.put(fill(filler));
+                fillStage.done.increment();
+            }
+        });
+        spawn(digStage, priority, () -> {
+            GridFiller local = GridFiller.local();
+            SolverEngine engine = Sudoku.SudokuSolver.engine();
+            PuzzleReducer reducer = (symmetry == PuzzleDigger.Symmetry.NONE && !minimal) ? null : new PuzzleReducer();
+            while (true) {
+                Candidate c = toDig.take();
+                toVerify.put(reducer == null ? dig(c, difficulty, local.random(), engine)
+                        : dig(c, difficulty, local.random(), reducer, symmetry, minimal));
+                digStage.done.increment();
+            }
+        });
+        spawn(verifyStage, priority, () -> {
+            SolverEngine engine = Sudoku.SudokuSolver.engine();
+            while (true) {
+                Candidate c = toVerify.take();
+                if (verify(c, engine)) toRate.put(c);
+                else rejected.increment();
+                verifyStage.done.increment();
+            }
+        });
+        spawn(rateStage, priority, () -> {
+            Selector selector = new Selector();
+            while (true) {
+                Candidate out = selector.offer(rate(toRate.take(), difficulty));
+                if (out != null) toEmit.put(out);
+                rateStage.done.increment();
+            }
+        });
+        spawn(emitStage, priority, () -> {
+            while (true) {
+                sink.accept(emit(toEmit.take()));
+                emitStage.done.increment();
+            }
+        });
+        return this;
+    }
+
+    private interface Work {
+        void run() throws InterruptedException;
+    }
+
+    private void spawn(Stage stage, int priority, Work work) {
+        for (int i = 0; i < stage.threads; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    work.run();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "generate-" + difficulty + "-" + stage.name + (stage.threads > 1 ? "-" + i : ""));
+            t.setDaemon(true);
+            t.setPriority(priority);
+            workers.add(t);
+            t.start();
+        }
+    }
+
+    /** Stops every stage; puzzles still in the queues are dropped. */
+    public synchronized void stop() {
+        for (Thread t : workers) t.interrupt();
+    }
+
+    /** Per-stage throughput and input queue depth, e.g. "fill 5210/s | dig x2 880/s q4/4 | ...". */
+    public String stats() {
+        double secs = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-9);
+        StringBuilder sb = new StringBuilder(difficulty).append(": ");
+        for (Stage s : new Stage[] { fillStage, digStage, verifyStage, rateStage, emitStage }) {
+            if (s != fillStage) sb.append(" | ");
+            sb.append(s.name);
+            if (s.threads > 1) sb.append(" x").append(s.threads);
+            sb.append(String.format(" %.0f/s", s.done.sum() / secs));
+            if (s.input != null) sb.append(" q").append(s.input.size()).append('/').append(queue);
+        }
+        if (rejected.sum() > 0) sb.append(" (").append(rejected.sum()).append(" failed verify)");
+        return sb.toString();
+    }
+}
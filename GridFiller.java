@@ -0,0 +1,187 @@
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * GridFiller - allocation-free random 9x9 solution grids.
+ *
+ * Fills the cells in row-major order like the old recursive fillGrid, but
+ * with an explicit stack: each depth owns a slice of a preallocated digit
+ * table, shuffled in place (Fisher-Yates), and row/column/box occupancy
+ * masks replace the isValid scans. All state is allocated once, so fill()
+ * produces no garbage after warm-up.
+ *
+ * transform() is the search-free alternative: it takes one of a few seed
+ * grids (filled once by backtracking) and applies random validity-preserving
+ * transformations (band and stack order, row order within bands, column
+ * order within stacks, transposition, digit relabelling). The cost is fixed,
+ * about 30 random draws and 81 writes, with no dead ends. Its grids are
+ * limited to the transformation classes of the seeds, which makes no
+ * difference to play.
+ *
+ * With -Dsudoku.fill=transform the per-thread fillers from local() use
+ * transform() for fill(); seeded fillers always backtrack, so a seed keeps
+ * its puzzle.
+ *
+ * Not thread-safe; use local() for the calling thread's instance. Each
+ * thread's SplittableRandom is split off a shared root, so generator threads
+ * never contend on one Random. A filler built on a seeded generator gives
+ * the same grid sequence every run (see PuzzleSeed).
+ */
+public final class GridFiller {
+
+    private static final BoardGeometry G = BoardGeometry.CLASSIC;
+    private static final SplittableRandom ROOT = new SplittableRandom();
+    private static final ThreadLocal<GridFiller> LOCAL = ThreadLocal.withInitial(GridFiller::new);
+    public static final String MODE_PROPERTY = "sudoku.fill";
+    private static final int SEED_GRIDS = 16;
+
+    private final RandomGenerator rand;
+    private final int[] rowUsed = new int[9];
+    private final int[] colUsed = new int[9];
+    private final int[] boxUsed = new int[9];
+    private final int[] digits = new int[81 * 9];   // shuffled digits, 9 per cell
+    private final int[] next = new int[81];         // next digit index to try, per cell
+    private final int[] scratch = new int[81];
+    private final boolean transform;                // fill() = transform()
+
+    // transform() state
+    private final int[] rowMap = new int[9], colMap = new int[9];
+    private final int[] relabel = new int[10];
+    private final int[] outer = new int[3], inner = new int[3];
+
+    private GridFiller() {
+        synchronized (ROOT) {
+            rand = ROOT.split();
+        }
+        transform = "transform".equalsIgnoreCase(System.getProperty(MODE_PROPERTY));
+    }
+
+    public GridFiller(RandomGenerator rand) {
+        this.rand = rand;
+        this.transform = false;
+    }
+
+    public static GridFiller local() {
+        return LOCAL.get();
+    }
+
+    /** The per-thread random source, for the rest of the generation path (digging). */
+    public RandomGenerator random() {
+        return rand;
+    }
+
+    /** Writes a random complete grid into out (flat, 81 cells). */
+    public void fill(int[] out) {
+        if (transform) transform(out);
+        else backtrack(out);
+    }
+
+    /** Random grid by randomized backtracking (cost varies with the dead ends hit). */
+    public void backtrack(int[] out) {
+        java.util.Arrays.fill(rowUsed, 0);
+        java.util.Arrays.fill(colUsed, 0);
+        java.util.Arrays.fill(boxUsed, 0);
+        int cell = 0, backtracks = 0;
+        shuffle(0);
+        while (cell < 81) {
+            int r = G.row[cell], c = G.col[cell], b = G.boxOf[cell];
+            int used = rowUsed[r] | colUsed[c] | boxUsed[b];
+            int v = 0;
+            while (next[cell] < 9) {
+                int d = digits[cell * 9 + next[cell]++];
+                if ((used & (1 << (d - 1))) == 0) {
+                    v = d;
+                    break;
+                }
+            }
+            if (v != 0) {
+                int bit = 1 << (v - 1);
+                out[cell] = v;
+                rowUsed[r] |= bit;
+                colUsed[c] |= bit;
+                boxUsed[b] |= bit;
+                if (++cell < 81) shuffle(cell);
+            } else {
+                // dead end: back up and lift the previous cell's digit
+                cell--;
+                backtracks++;
+                int pr = G.row[cell], pc = G.col[cell], pb = G.boxOf[cell];
+                int mask = ~(1 << (out[cell] - 1));
+                rowUsed[pr] &= mask;
+                colUsed[pc] &= mask;
+                boxUsed[pb] &= mask;
+            }
+        }
+        Metrics.count(Metrics.FILL_BACKTRACKS, backtracks);
+    }
+
+    // ---------- Transformations ----------
+
+    /** Random grid as a transformed seed grid: fixed cost, no search. */
+    public void transform(int[] out) {
+        int[] seed = Seeds.GRIDS[rand.nextInt(SEED_GRIDS)];
+        permuteLines(rowMap);
+        permuteLines(colMap);
+        for (int d = 1; d <= 9; d++) relabel[d] = d;
+        for (int i = 9; i > 1; i--) {
+            int j = rand.nextInt(i) + 1;
+            int t = relabel[i]; relabel[i] = relabel[j]; relabel[j] = t;
+        }
+        boolean transpose = rand.nextBoolean();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int sr = rowMap[r], sc = colMap[c];
+                out[r * 9 + c] = relabel[transpose ? seed[sc * 9 + sr] : seed[sr * 9 + sc]];
+            }
+        }
+    }
+
+    // Bands (or stacks) in random order, and the three lines inside each in random order
+    private void permuteLines(int[] map) {
+        permute3(outer);
+        for (int b = 0; b < 3; b++) {
+            permute3(inner);
+            for (int i = 0; i < 3; i++) map[b * 3 + i] = outer[b] * 3 + inner[i];
+        }
+    }
+
+    private void permute3(int[] p) {
+        p[0] = 0; p[1] = 1; p[2] = 2;
+        for (int i = 2; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = p[i]; p[i] = p[j]; p[j] = t;
+        }
+    }
+
+    // Seed grids, backtracked once on first use
+    private static final class Seeds {
+        static final int[][] GRIDS = new int[SEED_GRIDS][81];
+
+        static {
+            GridFiller filler;
+            synchronized (ROOT) {
+                filler = new GridFiller(ROOT.split());
+            }
+            for (int[] grid : GRIDS) filler.backtrack(grid);
+        }
+    }
+
+    /** Random complete grid as 9x9 int rows. */
+    public void fill(int[][] out) {
+        fill(scratch);
+        for (int r = 0; r < 9; r++) System.arraycopy(scratch, r * 9, out[r], 0, 9);
+    }
+
+    // In-place Fisher-Yates over the cell's digit slice
+    private void shuffle(int cell) {
+        int base = cell * 9;
+        for (int i = 0; i < 9; i++) digits[base + i] = i + 1;
+        for (int i = 8; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = digits[base + i];
+            digits[base + i] = digits[base + j];
+            digits[base + j] = t;
+        }
+        next[cell] = 0;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.Random;
+
+/**
+ * GridGenerator - puzzle generator for any board size (9x9, 16x16, 25x25).
+ *
+ * Full grids come from GridSolver run on an empty board with random branch
+ * order; clues are then removed with PuzzleDigger, so every puzzle has a
+ * unique solution. The digger's uniqueness checks run on
+ * SolverEngine.forSize(): ParallelSolver on multi-core machines, with the
+ * node budget scaled by the worker count so a check takes about as long as
+ * on one core but gives up less often. Rows use BoardGeometry symbols (1-9, A-P, '-' = empty).
+ *
+ * Usage: java GridGenerator [size] [difficulty]   (defaults: 16 medium)
+ */
+public class GridGenerator {
+
+    private final BoardGeometry g;
+    private final GridSolver solver;         // random fill
+    private final SolverEngine digger;       // uniqueness checks
+    private final Random rand;
+
+    // per uniqueness check; past this the clue is kept rather than proven redundant
+    private static final long DIG_NODE_LIMIT = 500;
+
+    public GridGenerator(int size) {
+        this(BoardGeometry.of(size), new Random());
+    }
+
+    public GridGenerator(BoardGeometry g, Random rand) {
+        this.g = g;
+        this.rand = rand;
+        this.solver = new GridSolver(g);
+        solver.setRandom(rand);
+        this.digger = SolverEngine.forSize(g.size);
+        if (digger instanceof GridSolver) ((GridSolver) digger).setNodeLimit(DIG_NODE_LIMIT);
+        if (digger instanceof ParallelSolver) {
+            ParallelSolver p = (ParallelSolver) digger;
+            p.setNodeLimit(DIG_NODE_LIMIT * p.parallelism());
+        }
+    }
+
+    public BoardGeometry geometry() {
+        return g;
+    }
+
+    /** A random complete grid (flat, N*N cells). */
+    public int[] fullGrid() {
+        int[] grid = new int[g.cells];
+        solver.solve(new int[g.cells], grid);
+        return grid;
+    }
+
+    public Sudoku.GeneratedSudoku generate(String difficulty) {
+        int[] solution = fullGrid();
+        int[] puzzle = solution.clone();
+        PuzzleDigger.dig(puzzle, removeCountFor(difficulty), rand, digger);
+        return new Sudoku.GeneratedSudoku(toRows(puzzle, g), toRows(solution, g));
+    }
+
+    /** Holes to dig: 43/56/68% of the board (large boards are not rated, so holes are the only measure). */
+    int removeCountFor(String difficulty) {
+        double share;
+        switch (difficulty == null ? "medium" : difficulty.toLowerCase()) {
+            case "easy": share = 0.43; break;
+            case "hard": share = 0.68; break;
+            default: share = 0.56;
+        }
+        return (int) (g.cells * share);
+    }
+
+    static String[] toRows(int[] cells, BoardGeometry g) {
+        String[] rows = new String[g.size];
+        char[] line = new char[g.size];
+        for (int r = 0; r < g.size; r++) {
+            for (int c = 0; c < g.size; c++) line[c] = BoardGeometry.symbol(cells[r * g.size + c]);
+            rows[r] = new String(line);
+        }
+        return rows;
+    }
+
+    static int[] toCells(String[] rows) {
+        int n = rows.length;
+        int[] cells = new int[n * n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int v = BoardGeometry.digit(rows[r].charAt(c));
+                if (v < 0 || v > n) throw new IllegalArgumentException("Invalid symbol at row " + r + ", column " + c);
+                cells[r * n + c] = v;
+            }
+        }
+        return cells;
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        String difficulty = args.length > 1 ? args[1] : "medium";
+        GridGenerator gen = new GridGenerator(size);
+
+        long start = System.nanoTime();
+        Sudoku.GeneratedSudoku s = gen.generate(difficulty);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+
+        int holes = 0;
+        for (String row : s.puzzle) {
+            System.out.println(row);
+            for (int i = 0; i < row.length(); i++) if (row.charAt(i) == '-') holes++;
+        }
+        System.out.println(size + "x" + size + " " + difficulty + ": " + holes + " holes in " + ms + " ms");
+    }
+}
@@ -0,0 +1,263 @@
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * GridSolver - constraint propagation solver for any BoardGeometry (9x9, 16x16, 25x25).
+ *
+ * Same search as BitmaskSolver (naked + hidden singles, most constrained cell
+ * first, preallocated undo trail) but with long candidate masks, so boards up
+ * to 64 digits fit. BitmaskSolver stays the faster choice for 9x9.
+ *
+ * With setRandom() the branch digits are tried from a random rotation, which
+ * turns solving an empty board into a random full-grid generator.
+ *
+ * setNodeLimit() caps the work per call: a search that runs out of nodes
+ * reports limit solutions, i.e. "not unique", which is the safe answer for
+ * the digger (the clue is simply kept). out is not written in that case.
+ *
+ * Not thread-safe: use one instance per thread.
+ */
+public class GridSolver implements SolverEngine {
+
+    private final BoardGeometry g;
+    private final int[] cells;
+    private final long[] rowUsed, colUsed, boxUsed;
+    private final int[] trail;
+    private int trailSize;
+    private int empty;
+
+    private final int[] solution;
+    private int solutions;
+    private int limit;
+    private long nodes;
+    private long maxNodes = Long.MAX_VALUE;
+    private Random rand;
+    private BooleanSupplier cancel;
+
+    public GridSolver(BoardGeometry g) {
+        this.g = g;
+        cells = new int[g.cells];
+        rowUsed = new long[g.size];
+        colUsed = new long[g.size];
+        boxUsed = new long[g.size];
+        trail = new int[g.cells];
+        solution = new int[g.cells];
+    }
+
+    public BoardGeometry geometry() {
+        return g;
+    }
+
+    /** Randomizes branch order (null = ascending digits). */
+    public void setRandom(Random rand) {
+        this.rand = rand;
+    }
+
+    /** Gives up after max search nodes per call (see class comment). */
+    public void setNodeLimit(long max) {
+        this.maxNodes = max;
+    }
+
+    /** True if the last call stopped because it ran out of nodes. */
+    public boolean gaveUp() {
+        return nodes > maxNodes;
+    }
+
+    /** Extra stop condition, polled with the interrupt check (see ParallelSolver). */
+    public void setCancel(BooleanSupplier cancel) {
+        this.cancel = cancel;
+    }
+
+    @Override
+    public String name() {
+        return "grid";
+    }
+
+    @Override
+    public boolean solve(int[] board, int[] out) {
+        return countSolutions(board, 1, out) > 0;
+    }
+
+    @Override
+    public int countSolutions(int[] board, int limit, int[] out) {
+        if (!load(board)) return 0;
+        this.limit = limit;
+        this.solutions = 0;
+        this.nodes = 0;
+        long start = Metrics.start();
+        search();
+        trailSize = 0;
+        Metrics.count(Metrics.SOLVE_NODES, nodes);
+        Metrics.SOLVE.record(start);
+        if (gaveUp()) return Math.max(solutions, limit);    // out is left untouched
+        if (solutions > 0 && out != null) System.arraycopy(solution, 0, out, 0, g.cells);
+        return solutions;
+    }
+
+    /** Search nodes visited by the last call. */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Applies naked and hidden singles to board in place, without branching.
+     * Returns -1 if the board has no solution, g.cells if it is now solved,
+     * otherwise the most constrained empty cell (see candidatesAt).
+     */
+    int reduce(int[] board) {
+        if (!load(board) || !propagate()) {
+            trailSize = 0;
+            return -1;
+        }
+        System.arraycopy(cells, 0, board, 0, g.cells);
+        trailSize = 0;
+        return empty == 0 ? g.cells : mostConstrained();
+    }
+
+    /** Candidates of cell on the board last passed to reduce(). */
+    long candidatesAt(int cell) {
+        return candidates(cell);
+    }
+
+    private boolean load(int[] board) {
+        if (board.length != g.cells)
+            throw new IllegalArgumentException("Expected " + g.cells + " cells, got " + board.length);
+        java.util.Arrays.fill(cells, 0);
+        java.util.Arrays.fill(rowUsed, 0);
+        java.util.Arrays.fill(colUsed, 0);
+        java.util.Arrays.fill(boxUsed, 0);
+        trailSize = 0;
+        empty = g.cells;
+        for (int i = 0; i < g.cells; i++) {
+            int v = board[i];
+            if (v < 0 || v > g.size) throw new IllegalArgumentException("Invalid digit " + v + " at cell " + i);
+            if (v == 0) continue;
+            if ((candidates(i) & (1L << (v - 1))) == 0) return false;
+            set(i, v);
+        }
+        return true;
+    }
+
+    // Returns true when the search should stop (limit reached or thread interrupted)
+    private boolean search() {
+        if ((++nodes & 0x3FF) == 0 && (Thread.currentThread().isInterrupted()
+                || (cancel != null && cancel.getAsBoolean()))) return true;
+        if (nodes > maxNodes) return true;
+        int mark = trailSize;
+        if (!propagate()) {
+            undo(mark);
+            return false;
+        }
+        if (empty == 0) {
+            if (++solutions == 1) System.arraycopy(cells, 0, solution, 0, g.cells);
+            undo(mark);
+            return solutions >= limit;
+        }
+
+        int best = mostConstrained();
+        long cand = candidates(best);
+        int offset = (rand == null) ? 0 : rand.nextInt(g.size);
+        for (int k = 0; k < g.size; k++) {
+            int d = (offset + k) % g.size;
+            if ((cand & (1L << d)) == 0) continue;
+            set(best, d + 1);
+            trail[trailSize++] = best;
+            if (search()) return true;
+            undo(trailSize - 1);
+        }
+        undo(mark);
+        return false;
+    }
+
+    private int mostConstrained() {
+        int best = -1, bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < g.cells && bestCount > 2; i++) {
+            if (cells[i] != 0) continue;
+            int n = Long.bitCount(candidates(i));
+            if (n < bestCount) {
+                best = i;
+                bestCount = n;
+            }
+        }
+        return best;
+    }
+
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int i = 0; i < g.cells; i++) {
+                if (cells[i] != 0) continue;
+                long cand = candidates(i);
+                if (cand == 0) return false;
+                if ((cand & (cand - 1)) == 0) {
+                    place(i, cand);
+                    changed = true;
+                }
+            }
+            if (changed) continue;
+
+            for (int[] unit : g.units) {
+                long once = 0, twice = 0, placed = 0;
+                for (int cell : unit) {
+                    if (cells[cell] != 0) {
+                        placed |= 1L << (cells[cell] - 1);
+                        continue;
+                    }
+                    long cand = candidates(cell);
+                    twice |= once & cand;
+                    once |= cand;
+                }
+                if ((once | placed) != g.all) return false;
+
+                long hidden = once & ~twice;
+                while (hidden != 0) {
+                    long bit = hidden & -hidden;
+                    hidden ^= bit;
+                    int target = -1;
+                    for (int cell : unit) {
+                        if (cells[cell] == 0 && (candidates(cell) & bit) != 0) {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    if (target < 0) return false;
+                    place(target, bit);
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    private long candidates(int cell) {
+        return g.all & ~(rowUsed[g.row[cell]] | colUsed[g.col[cell]] | boxUsed[g.boxOf[cell]]);
+    }
+
+    private void place(int cell, long bit) {
+        set(cell, Long.numberOfTrailingZeros(bit) + 1);
+        trail[trailSize++] = cell;
+    }
+
+    private void set(int cell, int v) {
+        long bit = 1L << (v - 1);
+        cells[cell] = v;
+        rowUsed[g.row[cell]] |= bit;
+        colUsed[g.col[cell]] |= bit;
+        boxUsed[g.boxOf[cell]] |= bit;
+        empty--;
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            long mask = ~(1L << (cells[cell] - 1));
+            cells[cell] = 0;
+            rowUsed[g.row[cell]] &= mask;
+            colUsed[g.col[cell]] &= mask;
+            boxUsed[g.boxOf[cell]] &= mask;
+            empty++;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * HintService - computes Full Helper hints off the EDT.
+ *
+ * request() snapshots the board and its version on the caller's thread, solves
+ * the snapshot on a background executor (virtual threads when the JVM has
+ * them) and hands the result back through the given callback executor, e.g.
+ * SwingUtilities::invokeLater. The session only accepts the result if the
+ * board has not changed since the snapshot (otherwise the hint is STALE).
+ *
+ * Boards whose solution is already known (GameSession.knownSolution) are
+ * answered without touching the executor; fresh solves go into SolutionCache.
+ *
+ * A solve that runs longer than the timeout is interrupted and reported as
+ * TIMEOUT; cancel() interrupts it silently.
+ */
+public class HintService {
+
+    static final long TIMEOUT_MS = Long.getLong("sudoku.hintTimeoutMs", 2000L);
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "hint-timeout");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public interface Callback {
+        void done(GameSession.Hint hint);
+    }
+
+    /** Handle of a running hint computation. */
+    public static final class Request {
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Future<?> future;
+
+        /** Stops the computation; the callback is not called. */
+        public void cancel() {
+            if (finished.compareAndSet(false, true) && future != null) future.cancel(true);
+        }
+
+        public boolean isDone() {
+            return finished.get();
+        }
+    }
+
+    /**
+     * Starts computing a hint for session. Must be called on the session's
+     * thread; callback runs on callbackExecutor (normally the same thread).
+     */
+    public static Request request(GameSession session, Executor callbackExecutor, Callback done) {
+        Request req = new Request();
+        // hint latency per difficulty, request to callback
+        long start = Metrics.start();
+        Metrics.Latency latency = Metrics.hint(session.difficulty());
+        Callback callback = hint -> {
+            latency.record(start);
+            done.done(hint);
+        };
+        if (session.hintsUsed() >= GameSession.MAX_HINTS) {
+            req.finished.set(true);
+            callbackExecutor.execute(() -> callback.done(new GameSession.Hint(GameSession.HintStatus.LIMIT_REACHED, -1, -1, 0)));
+            return req;
+        }
+
+        long version = session.version();
+        int[] snapshot = session.snapshot();
+        int[] known = session.knownSolution(snapshot);
+        if (known != null) {
+            callbackExecutor.execute(() -> {
+                if (req.finished.compareAndSet(false, true)) callback.done(session.acceptHint(version, snapshot, known));
+            });
+            return req;
+        }
+
+        long key = session.boardHash();
+        req.future = EXECUTOR.submit(() -> {
+            int[] solved = new int[81];
+            boolean ok = Sudoku.SudokuSolver.engine().solve(snapshot, solved);
+            if (Thread.currentThread().isInterrupted()) return; // cancelled or timed out
+            if (ok) SolutionCache.put(key, solved);
+            int[] result = ok ? solved : null;
+            callbackExecutor.execute(() -> {
+                if (req.finished.compareAndSet(false, true)) callback.done(session.acceptHint(version, snapshot, result));
+            });
+        });
+
+        TIMEOUTS.schedule(() -> {
+            if (req.finished.compareAndSet(false, true)) {
+                req.future.cancel(true);
+                callbackExecutor.execute(() -> callback.done(new GameSession.Hint(GameSession.HintStatus.TIMEOUT, -1, -1, 0)));
+            }
+        }, TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        return req;
+    }
+
+    // Virtual threads on Java 21+, otherwise a cached pool of daemon threads
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "hint-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
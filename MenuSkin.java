@@ -0,0 +1,203 @@
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * MenuSkin - cached painting for the menu windows.
+ *
+ * The gradient backgrounds and the rounded button shapes never change while
+ * the size stays the same, so each is drawn once into a compatible image and
+ * later paints are a single drawImage. The fade-out snapshots the window once
+ * and composites that image at falling alpha, instead of having every
+ * component repaint on every tick.
+ *
+ * With -Dsudoku.frameStats=true the fade prints its frame timing to stderr
+ * (paint time per frame and the worst gap between frames).
+ */
+final class MenuSkin {
+
+    static final Color BUTTON = new Color(30, 144, 255);
+    static final Color BUTTON_HOVER = new Color(65, 105, 225);
+
+    private static final int FADE_TICK_MS = 15;
+    private static final float FADE_STEP = 0.04f;
+
+    private MenuSkin() {
+    }
+
+    // Opaque or translucent image matching the screen format when the component is displayable
+    static BufferedImage image(JComponent owner, int w, int h, boolean translucent) {
+        GraphicsConfiguration gc = owner.getGraphicsConfiguration();
+        if (gc != null) return gc.createCompatibleImage(w, h, translucent ? Transparency.TRANSLUCENT : Transparency.OPAQUE);
+        return new BufferedImage(w, h, translucent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    }
+
+    // ---------- Gradient background ----------
+
+    /** Panel with a vertical gradient, rendered once per size. */
+    static class GradientPanel extends JPanel {
+        private final Color top, bottom;
+        private BufferedImage cache;
+
+        GradientPanel(Color top, Color bottom) {
+            this.top = top;
+            this.bottom = bottom;
+            setOpaque(true);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            int w = getWidth(), h = getHeight();
+            if (w <= 0 || h <= 0) return;
+            if (cache == null || cache.getWidth() != w || cache.getHeight() != h) {
+                cache = image(this, w, h, false);
+                Graphics2D g2 = cache.createGraphics();
+                g2.setPaint(new GradientPaint(0, 0, top, 0, h, bottom));
+                g2.fillRect(0, 0, w, h);
+                g2.dispose();
+            }
+            g.drawImage(cache, 0, 0, null);
+        }
+    }
+
+    // ---------- Rounded button ----------
+
+    /** Rounded button; normal and hover skins are rendered once per size. */
+    static class RoundedButton extends JButton {
+        private BufferedImage normal, hover;
+
+        RoundedButton(String text) {
+            super(text);
+            setContentAreaFilled(false);
+            setFocusPainted(false);
+            setRolloverEnabled(true);
+            setForeground(Color.WHITE);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            int w = getWidth(), h = getHeight();
+            if (w > 0 && h > 0) {
+                if (normal == null || normal.getWidth() != w || normal.getHeight() != h) {
+                    normal = skin(w, h, BUTTON);
+                    hover = skin(w, h, BUTTON_HOVER);
+                }
+                g.drawImage(getModel().isRollover() ? hover : normal, 0, 0, null);
+            }
+            super.paintComponent(g);   // text only (content area not filled)
+        }
+
+        private BufferedImage skin(int w, int h, Color color) {
+            BufferedImage img = image(this, w, h, true);
+            Graphics2D g2 = img.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(color);
+            g2.fillRoundRect(0, 0, w, h, 30, 30);
+            g2.dispose();
+            return img;
+        }
+
+        @Override
+        public void updateUI() {
+            super.updateUI();
+            setOpaque(false);
+            setBorder(javax.swing.BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        }
+    }
+
+    // ---------- Fade out ----------
+
+    /** Fades window to black from a one-time snapshot, then disposes it and runs afterFade. */
+    static void fadeOut(JFrame window, Runnable afterFade) {
+        JComponent content = (JComponent) window.getContentPane();
+        int w = content.getWidth(), h = content.getHeight();
+        if (w <= 0 || h <= 0) {
+            window.dispose();
+            afterFade.run();
+            return;
+        }
+        BufferedImage snapshot = image(content, w, h, false);
+        Graphics2D sg = snapshot.createGraphics();
+        content.paint(sg);
+        sg.dispose();
+
+        FadePane pane = new FadePane(snapshot);
+        window.setGlassPane(pane);
+        pane.setVisible(true);
+
+        Timer timer = new Timer(FADE_TICK_MS, null);
+        timer.addActionListener(e -> {
+            pane.tick();
+            if (pane.alpha <= 0f) {
+                timer.stop();
+                pane.report();
+                window.dispose();
+                afterFade.run();
+            } else {
+                pane.paintImmediately(0, 0, pane.getWidth(), pane.getHeight());
+            }
+        });
+        timer.start();
+    }
+
+    // Glass pane drawing the snapshot over black; nothing underneath is repainted
+    private static final class FadePane extends JComponent {
+        private final BufferedImage snapshot;
+        float alpha = 1f;
+
+        // frame timing
+        private int frames;
+        private long paintNanos, maxPaintNanos, lastTick, maxGapNanos;
+
+        FadePane(BufferedImage snapshot) {
+            this.snapshot = snapshot;
+            setOpaque(true);
+        }
+
+        void tick() {
+            long now = System.nanoTime();
+            if (lastTick != 0) maxGapNanos = Math.max(maxGapNanos, now - lastTick);
+            lastTick = now;
+            alpha -= FADE_STEP;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            long start = System.nanoTime();
+            paintFrame((Graphics2D) g, snapshot, Math.max(0f, alpha), getWidth(), getHeight());
+            long took = System.nanoTime() - start;
+            frames++;
+            paintNanos += took;
+            maxPaintNanos = Math.max(maxPaintNanos, took);
+        }
+
+        void report() {
+            if (!Boolean.getBoolean("sudoku.frameStats") || frames == 0) return;
+            System.err.printf("fade: %d frames, paint avg %.2f ms / max %.2f ms, worst frame gap %.1f ms (%.0f fps)%n",
+                    frames, paintNanos / 1e6 / frames, maxPaintNanos / 1e6, maxGapNanos / 1e6,
+                    1e9 / Math.max(maxGapNanos, 1));
+        }
+    }
+
+    /** One fade frame: black, then the snapshot at alpha. */
+    static void paintFrame(Graphics2D g, BufferedImage snapshot, float alpha, int w, int h) {
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, w, h);
+        Composite old = g.getComposite();
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g.drawImage(snapshot, 0, 0, null);
+        g.setComposite(old);
+    }
+}
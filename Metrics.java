@@ -0,0 +1,225 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Metrics - counters and latency histograms for the engine, published over JMX.
+ *
+ * Counters are LongAdders (solver nodes, fill backtracks). Latencies (solve,
+ * dig, generate and hint per difficulty, save, load) go into log-linear
+ * buckets: 8 sub-buckets per power of two of nanoseconds, so a percentile is
+ * within 12.5% of the real value, and recording is one AtomicLongArray
+ * increment plus two LongAdder adds. Nothing allocates after class init.
+ *
+ * Call sites take start() before the work and pass it to record(). When
+ * metrics are off start() returns 0 and record() does nothing, so the cost
+ * is a volatile read.
+ *
+ * register() publishes "sudoku:type=Metrics" (Enabled can be switched at
+ * runtime, reset()) and one "sudoku:type=Latency,name=..." per histogram, for
+ * jconsole or any JMX alerting on P99Micros. -Dsudoku.metrics=false starts
+ * with recording off.
+ */
+public final class Metrics {
+
+    public static final String PROPERTY = "sudoku.metrics";
+
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty(PROPERTY));
+
+    /** Search nodes visited by all solver calls. */
+    public static final LongAdder SOLVE_NODES = new LongAdder();
+    /** Digits lifted again by GridFiller (dead ends while filling a grid). */
+    public static final LongAdder FILL_BACKTRACKS = new LongAdder();
+
+    public static final Latency SOLVE = new Latency("solve");
+    public static final Latency DIG = new Latency("dig");
+    public static final Latency SAVE = new Latency("save");
+    public static final Latency LOAD = new Latency("load");
+    private static final Latency[] GENERATE = perDifficulty("generate");
+    private static final Latency[] HINT = perDifficulty("hint");
+
+    private static boolean registered;
+
+    private Metrics() {
+    }
+
+    private static Latency[] perDifficulty(String name) {
+        Latency[] l = new Latency[PuzzlePool.DIFFICULTIES.length];
+        for (int i = 0; i < l.length; i++) l[i] = new Latency(name + "." + PuzzlePool.DIFFICULTIES[i]);
+        return l;
+    }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** Start time for record(), or 0 when metrics are off. */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static Latency generate(String difficulty) {
+        return GENERATE[PuzzleBank.levelOf(difficulty)];
+    }
+
+    public static Latency hint(String difficulty) {
+        return HINT[PuzzleBank.levelOf(difficulty)];
+    }
+
+    /** Adds n to counter when metrics are on. */
+    public static void count(LongAdder counter, long n) {
+        if (enabled) counter.add(n);
+    }
+
+    public static void reset() {
+        SOLVE_NODES.reset();
+        FILL_BACKTRACKS.reset();
+        for (Latency l : all()) l.reset();
+    }
+
+    private static Latency[] all() {
+        return new Latency[] { SOLVE, DIG, SAVE, LOAD, GENERATE[0], GENERATE[1], GENERATE[2], HINT[0], HINT[1], HINT[2] };
+    }
+
+    // ---------- JMX ----------
+
+    /** Registers the MBeans on the platform server (once; failures are reported, not thrown). */
+    public static synchronized void register() {
+        if (registered) return;
+        registered = true;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new StandardMBean(new Control(), ControlMBean.class),
+                    new ObjectName("sudoku:type=Metrics"));
+            for (Latency l : all()) {
+                server.registerMBean(new StandardMBean(l, LatencyMBean.class),
+                        new ObjectName("sudoku:type=Latency,name=" + l.name));
+            }
+        } catch (JMException | SecurityException ex) {
+            System.err.println("Metrics not published over JMX: " + ex);
+        }
+    }
+
+    public interface ControlMBean {
+        boolean isEnabled();
+        void setEnabled(boolean enabled);
+        long getSolveNodes();
+        long getFillBacktracks();
+        void reset();
+    }
+
+    private static final class Control implements ControlMBean {
+        @Override public boolean isEnabled() { return enabled; }
+        @Override public void setEnabled(boolean on) { Metrics.setEnabled(on); }
+        @Override public long getSolveNodes() { return SOLVE_NODES.sum(); }
+        @Override public long getFillBacktracks() { return FILL_BACKTRACKS.sum(); }
+        @Override public void reset() { Metrics.reset(); }
+    }
+
+    public interface LatencyMBean {
+        long getCount();
+        double getMeanMicros();
+        double getP50Micros();
+        double getP90Micros();
+        double getP99Micros();
+        double getP999Micros();
+        double getMaxMicros();
+        void reset();
+    }
+
+    // ---------- Histogram ----------
+
+    /** Latency histogram with log-linear buckets (see class comment). */
+    public static final class Latency implements LatencyMBean {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+        final String name;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Latency(String name) {
+            this.name = name;
+        }
+
+        /** Records the time since start (from Metrics.start()); no-op if start is 0. */
+        public void record(long start) {
+            if (start == 0) return;
+            recordNanos(System.nanoTime() - start);
+        }
+
+        public void recordNanos(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets.incrementAndGet(index(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        // Values below SUB get their own bucket; above, SUB buckets per power of two
+        static int index(long v) {
+            if (v < SUB) return (int) v;
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int mantissa = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+            return (exp - SUB_BITS + 1) * SUB + mantissa;
+        }
+
+        // Largest value that falls into bucket i
+        static long upperBound(int i) {
+            if (i < SUB) return i;
+            int exp = i / SUB - 1 + SUB_BITS;
+            long width = 1L << (exp - SUB_BITS);
+            return ((SUB + (i % SUB)) * width) + width - 1;
+        }
+
+        /** Value at quantile q (0..1) in nanoseconds, as the upper edge of its bucket. */
+        public long quantileNanos(double q) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) return Math.min(upperBound(i), maxNanos.get());
+            }
+            return maxNanos.get();
+        }
+
+        @Override public long getCount() { return count.sum(); }
+        @Override public double getMeanMicros() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e3 / n;
+        }
+        @Override public double getP50Micros() { return quantileNanos(0.50) / 1e3; }
+        @Override public double getP90Micros() { return quantileNanos(0.90) / 1e3; }
+        @Override public double getP99Micros() { return quantileNanos(0.99) / 1e3; }
+        @Override public double getP999Micros() { return quantileNanos(0.999) / 1e3; }
+        @Override public double getMaxMicros() { return maxNanos.get() / 1e3; }
+
+        @Override
+        public void reset() {
+            for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: n=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus",
+                    name, getCount(), getMeanMicros(), getP50Micros(), getP99Micros(), getMaxMicros());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ParallelSolver - fork/join search for hard and large boards.
+ *
+ * Every call first runs the plain single-threaded GridSolver with a node
+ * budget, so easy boards never touch the pool. Boards that exhaust it are
+ * split at the most constrained cells: each candidate digit becomes a
+ * RecursiveAction on the common ForkJoinPool (idle workers steal the rest),
+ * and below the split depth each task searches its subtree sequentially.
+ * Once a solution is found for solve(), or the count limit is reached, the
+ * remaining tasks see the shared flag and stop within ~1000 nodes.
+ *
+ * Splitting stops early when the worker already has surplus queued tasks,
+ * so the tree is only cut as finely as the pool can use.
+ *
+ * setNodeLimit() caps the nodes of a call over all tasks together; the
+ * sequential attempt gets at most one worker's share of it. A call that runs
+ * out reports limit solutions, as GridSolver does.
+ *
+ * Safe to share between threads; SolverEngine.forSize() picks it for the
+ * large boards, -Dsudoku.solver=parallel for 9x9.
+ */
+public class ParallelSolver implements SolverEngine {
+
+    // sequential attempt before forking; covers nearly every 9x9 puzzle
+    static final long SEQUENTIAL_NODES = 2_000;
+    // maximum split depth (up to ~2^depth tasks with two-way branching)
+    static final int SPLIT_DEPTH = 6;
+
+    private final BoardGeometry g;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<GridSolver> solvers;
+    private volatile long maxNodes = Long.MAX_VALUE;
+
+    public ParallelSolver(BoardGeometry g) {
+        this(g, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSolver(BoardGeometry g, ForkJoinPool pool) {
+        this.g = g;
+        this.pool = pool;
+        this.solvers = ThreadLocal.withInitial(() -> new GridSolver(g));
+    }
+
+    @Override
+    public String name() {
+        return "parallel";
+    }
+
+    /** Gives up after max search nodes per call, summed over all tasks (see class comment). */
+    public void setNodeLimit(long max) {
+        this.maxNodes = max;
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public boolean solve(int[] board, int[] out) {
+        return countSolutions(board, 1, out) > 0;
+    }
+
+    @Override
+    public int countSolutions(int[] board, int limit, int[] out) {
+        long max = maxNodes;
+        GridSolver seq = solvers.get();
+        seq.setNodeLimit(Math.min(SEQUENTIAL_NODES, max / parallelism()));
+        int[] first = (out == null) ? null : new int[g.cells];   // out only changes once an attempt finishes
+        int n;
+        boolean gaveUp;
+        try {
+            n = seq.countSolutions(board, limit, first);
+            gaveUp = seq.gaveUp();      // before the limit is reset, which would clear it
+        } finally {
+            seq.setNodeLimit(Long.MAX_VALUE);
+        }
+        if (!gaveUp) {
+            if (n > 0 && out != null) System.arraycopy(first, 0, out, 0, g.cells);
+            return n;
+        }
+
+        Search search = new Search(limit, max, Thread.currentThread());
+        search.nodes.addAndGet(seq.nodes());
+        if (search.budget() == 0) return limit;
+        pool.invoke(new Split(search, board.clone(), 0));
+        if (search.gaveUp) return limit;
+        if (search.first != null && out != null) System.arraycopy(search.first, 0, out, 0, g.cells);
+        return Math.min(search.found.get(), limit);
+    }
+
+    // State shared by all tasks of one call
+    private static final class Search {
+        final int limit;
+        final long maxNodes;
+        final Thread caller;
+        final AtomicInteger found = new AtomicInteger();
+        final AtomicLong nodes = new AtomicLong();
+        volatile boolean done, gaveUp;
+        int[] first;
+
+        Search(int limit, long maxNodes, Thread caller) {
+            this.limit = limit;
+            this.maxNodes = maxNodes;
+            this.caller = caller;
+        }
+
+        // Nodes a leaf may still use; each leaf takes what is left when it starts
+        long budget() {
+            return maxNodes == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, maxNodes - nodes.get());
+        }
+
+        void spent(GridSolver s) {
+            nodes.addAndGet(s.nodes());
+            if (s.gaveUp()) {
+                gaveUp = true;
+                done = true;
+            }
+        }
+
+        boolean stopped() {
+            return done || caller.isInterrupted();
+        }
+
+        void record(int count, int[] solution) {
+            if (count == 0) return;
+            synchronized (this) {
+                if (first == null) first = solution.clone();
+            }
+            if (found.addAndGet(count) >= limit) done = true;
+        }
+    }
+
+    private final class Split extends RecursiveAction {
+        private final Search search;
+        private final int[] board;
+        private final int depth;
+
+        Split(Search search, int[] board, int depth) {
+            this.search = search;
+            this.board = board;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.stopped()) return;
+            GridSolver s = solvers.get();
+
+            if (depth >= SPLIT_DEPTH || getSurplusQueuedTaskCount() > 2) {
+                int[] out = new int[g.cells];
+                s.setCancel(search::stopped);
+                s.setNodeLimit(search.budget());
+                try {
+                    int n = s.countSolutions(board, search.limit, out);
+                    search.spent(s);
+                    if (!s.gaveUp()) search.record(n, out);
+                } finally {
+                    s.setCancel(null);
+                    s.setNodeLimit(Long.MAX_VALUE);
+                }
+                return;
+            }
+
+            int cell = s.reduce(board);
+            if (cell < 0) return;
+            if (cell == g.cells) {
+                search.record(1, board);
+                return;
+            }
+            long cand = s.candidatesAt(cell);
+            List<Split> children = new ArrayList<>(Long.bitCount(cand));
+            while (cand != 0) {
+                long bit = cand & -cand;
+                cand ^= bit;
+                int[] child = board.clone();
+                child[cell] = Long.numberOfTrailingZeros(bit) + 1;
+                children.add(new Split(search, child, depth + 1));
+            }
+            invokeAll(children);
+        }
+    }
+}
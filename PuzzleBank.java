@@ -0,0 +1,241 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * PuzzleBank - compact, memory-mapped file of pre-generated puzzles.
+ *
+ * File layout (big-endian):
+ *   header  16 bytes : magic "SDKB", version (short), reserved (short), count (int), reserved (int)
+ *           1024 bytes: number of entries per difficulty level 0..255 (int each)
+ *   entries 83 bytes each, grouped by ascending difficulty level:
+ *           difficulty (1 byte), clues (41 bytes), solution (41 bytes)
+ *
+ * Boards are packed as 4-bit nibbles, cell i in byte i/2 (even cells in the
+ * high nibble), 0 = empty. Entries are read straight out of the mapped buffer
+ * by index, so the bank costs almost no heap regardless of its size.
+ *
+ * Levels used by the game: 0 = easy, 1 = medium, 2 = hard.
+ */
+public class PuzzleBank {
+
+    static final String DEFAULT_FILE = "puzzles.bank";
+    static final String PROPERTY = "sudoku.bank";
+
+    private static final int MAGIC = 0x53444B42; // "SDKB"
+    private static final short VERSION = 1;
+    private static final int LEVELS = 256;
+    private static final int HEADER = 16 + LEVELS * 4;
+    private static final int BOARD_BYTES = 41;
+    static final int ENTRY = 1 + 2 * BOARD_BYTES;
+
+    private final MappedByteBuffer buf;
+    private final int count;
+    private final int[] levelStart = new int[LEVELS + 1];
+
+    private PuzzleBank(MappedByteBuffer buf) throws IOException {
+        this.buf = buf;
+        if (buf.capacity() < HEADER || buf.getInt(0) != MAGIC) throw new IOException("Not a puzzle bank file");
+        if (buf.getShort(4) != VERSION) throw new IOException("Unsupported puzzle bank version " + buf.getShort(4));
+        this.count = buf.getInt(8);
+        for (int d = 0; d < LEVELS; d++) levelStart[d + 1] = levelStart[d] + buf.getInt(16 + d * 4);
+        if (levelStart[LEVELS] != count || (long) HEADER + (long) count * ENTRY > buf.capacity())
+            throw new IOException("Corrupt puzzle bank header");
+    }
+
+    public static PuzzleBank open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.BIG_ENDIAN);
+            return new PuzzleBank(buf);
+        }
+    }
+
+    // ---------- Default bank used by PuzzlePool ----------
+    private static PuzzleBank shared;
+    private static boolean sharedLoaded = false;
+
+    // Bank from -Dsudoku.bank (default "puzzles.bank"), or null if there is none
+    static synchronized PuzzleBank shared() {
+        if (!sharedLoaded) {
+            sharedLoaded = true;
+            Path p = Paths.get(System.getProperty(PROPERTY, DEFAULT_FILE));
+            if (Files.isRegularFile(p)) {
+                try {
+                    shared = open(p);
+                } catch (IOException ex) {
+                    System.err.println("Ignoring puzzle bank " + p + ": " + ex.getMessage());
+                }
+            }
+        }
+        return shared;
+    }
+
+    // ---------- Reading ----------
+
+    public int size() {
+        return count;
+    }
+
+    public int count(int level) {
+        return levelStart[level + 1] - levelStart[level];
+    }
+
+    public int difficulty(int index) {
+        return buf.get(offset(index)) & 0xFF;
+    }
+
+    public void puzzle(int index, int[] out) {
+        unpack(offset(index) + 1, out);
+    }
+
+    public void solution(int index, int[] out) {
+        unpack(offset(index) + 1 + BOARD_BYTES, out);
+    }
+
+    // Random puzzle of the given level, or null if the bank has none
+    public Sudoku.GeneratedSudoku random(int level, Random rand) {
+        int n = count(level);
+        if (n == 0) return null;
+        return get(levelStart[level] + rand.nextInt(n));
+    }
+
+    public Sudoku.GeneratedSudoku get(int index) {
+        int[] p = new int[81], s = new int[81];
+        puzzle(index, p);
+        solution(index, s);
+        return new Sudoku.GeneratedSudoku(toRows(p), toRows(s));
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        return HEADER + index * ENTRY;
+    }
+
+    private void unpack(int pos, int[] out) {
+        for (int i = 0; i < 81; i += 2) {
+            int b = buf.get(pos + (i >> 1));
+            out[i] = (b >> 4) & 0xF;
+            if (i + 1 < 81) out[i + 1] = b & 0xF;
+        }
+    }
+
+    // ---------- Writing ----------
+
+    /**
+     * Streams entries into a new bank file. Entries must be appended in
+     * non-decreasing difficulty order; the header is written on close().
+     */
+    public static class Writer implements AutoCloseable {
+        private final FileChannel ch;
+        private final ByteBuffer out = ByteBuffer.allocate(ENTRY * 1024);
+        private final int[] levelCount = new int[LEVELS];
+        private int count = 0;
+        private int lastLevel = 0;
+
+        public Writer(Path file) throws IOException {
+            ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            ch.position(HEADER);
+        }
+
+        public void append(int level, int[] puzzle, int[] solution) throws IOException {
+            if (level < lastLevel || level >= LEVELS)
+                throw new IllegalArgumentException("Difficulty " + level + " out of order (last " + lastLevel + ")");
+            if (out.remaining() < ENTRY) flush();
+            out.put((byte) level);
+            pack(puzzle);
+            pack(solution);
+            lastLevel = level;
+            levelCount[level]++;
+            count++;
+        }
+
+        private void pack(int[] board) {
+            for (int i = 0; i < 81; i += 2) {
+                int hi = board[i], lo = (i + 1 < 81) ? board[i + 1] : 0;
+                out.put((byte) ((hi << 4) | lo));
+            }
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) ch.write(out);
+            out.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(count).putInt(0);
+                for (int n : levelCount) header.putInt(n);
+                header.flip();
+                ch.position(0);
+                while (header.hasRemaining()) ch.write(header);
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    // ---------- Helpers ----------
+
+    static int levelOf(String difficulty) {
+        switch (difficulty == null ? "medium" : difficulty.toLowerCase()) {
+            case "easy": return 0;
+            case "hard": return 2;
+            default: return 1;
+        }
+    }
+
+    static int[] toCells(String[] rows) {
+        int[] cells = new int[81];
+        for (int r = 0; r < 9; r++)
+            for (int c = 0; c < 9; c++) {
+                char ch = rows[r].charAt(c);
+                cells[r * 9 + c] = (ch == '-') ? 0 : ch - '0';
+            }
+        return cells;
+    }
+
+    static String[] toRows(int[] cells) {
+        String[] rows = new String[9];
+        for (int r = 0; r < 9; r++) {
+            StringBuilder sb = new StringBuilder();
+            for (int c = 0; c < 9; c++) {
+                int v = cells[r * 9 + c];
+                sb.append(v == 0 ? '-' : (char) ('0' + v));
+            }
+            rows[r] = sb.toString();
+        }
+        return rows;
+    }
+
+    // Offline builder: java PuzzleBank <file> <puzzles per difficulty>
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java PuzzleBank <file> <puzzles per difficulty>");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        int perLevel = Integer.parseInt(args[1]);
+        try (Writer w = new Writer(file)) {
+            for (String d : PuzzlePool.DIFFICULTIES) {
+                for (int i = 0; i < perLevel; i++) {
+                    Sudoku.GeneratedSudoku gs = Sudoku.SudokuGenerator.generate(d);
+                    w.append(levelOf(d), toCells(gs.puzzle), toCells(gs.solution));
+                }
+            }
+        }
+        System.out.println("Wrote " + (perLevel * PuzzlePool.DIFFICULTIES.length) + " puzzles to " + file);
+    }
+}
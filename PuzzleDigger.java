@@ -0,0 +1,65 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * PuzzleDigger - removes clues from a solved grid while keeping the solution unique.
+ *
+ * Cells are visited in random order and a clue is only blanked if the puzzle
+ * still has exactly one solution. Solution counting stops at the second
+ * solution, so a rejected removal costs about as much as a single solve.
+ *
+ * Symmetric and minimal puzzles (9x9) come from PuzzleReducer instead.
+ */
+public class PuzzleDigger {
+
+    /** Which cells are blanked together. */
+    public enum Symmetry {
+        NONE,
+        ROTATIONAL,     // 180 degrees: cell and its point reflection through the centre
+        MIRROR;         // left-right: cell and its reflection in the middle column
+
+        /** Cell paired with cell (itself on the axis or centre), 9x9. */
+        int partner(int cell) {
+            switch (this) {
+                case ROTATIONAL: return 80 - cell;
+                case MIRROR: return (cell / 9) * 9 + 8 - cell % 9;
+                default: return cell;
+            }
+        }
+
+        public static Symmetry of(String name) {
+            return valueOf(name.toUpperCase());
+        }
+    }
+
+    /**
+     * Blanks up to holes cells of grid (flat, any board size the engine
+     * supports, modified in place).
+     * Returns the number of cells actually removed; this can be less than
+     * holes when every remaining clue is needed for uniqueness.
+     */
+    public static int dig(int[] grid, int holes, RandomGenerator rand, SolverEngine engine) {
+        long start = Metrics.start();
+        int cells = grid.length;
+        int[] order = new int[cells];
+        for (int i = 0; i < cells; i++) order[i] = i;
+        for (int i = cells - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = order[i]; order[i] = order[j]; order[j] = t;
+        }
+
+        int removed = 0;
+        for (int k = 0; k < cells && removed < holes; k++) {
+            int cell = order[k];
+            int v = grid[cell];
+            if (v == 0) continue;
+            grid[cell] = 0;
+            if (engine.countSolutions(grid, 2, null) == 1) {
+                removed++;
+            } else {
+                grid[cell] = v;
+            }
+        }
+        Metrics.DIG.record(start);
+        return removed;
+    }
+}
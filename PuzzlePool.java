@@ -0,0 +1,60 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PuzzlePool - ready-made puzzles per difficulty, filled in the background.
+ *
+ * start() launches one GenerationPipeline per difficulty (low-priority daemon
+ * threads). Its emit stage puts puzzles into a bounded queue and blocks once
+ * it is full, which stalls the stages behind it, so the pool refills
+ * automatically as soon as a game takes a puzzle out. take() is a plain poll
+ * and only falls back to generating on the caller's thread when the pool
+ * for that difficulty is empty (or the difficulty is not pooled).
+ *
+ * If a PuzzleBank file is present, difficulties it covers are served from
+ * the bank instead and get no worker.
+ */
+public class PuzzlePool {
+
+    static final String[] DIFFICULTIES = {"easy", "medium", "hard"};
+    private static final int CAPACITY = 8;
+
+    private static final Map<String, BlockingQueue<Sudoku.GeneratedSudoku>> pools = new HashMap<>();
+    private static boolean started = false;
+
+    static {
+        for (String d : DIFFICULTIES) pools.put(d, new ArrayBlockingQueue<>(CAPACITY));
+    }
+
+    // Starts the background workers (once)
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+        PuzzleBank bank = PuzzleBank.shared();
+        for (String d : DIFFICULTIES) {
+            if (bank != null && bank.count(PuzzleBank.levelOf(d)) > 0) continue;
+            new GenerationPipeline(d, 1, pools.get(d)::put).start(Thread.MIN_PRIORITY);
+        }
+    }
+
+    // Returns a banked or pooled puzzle, or generates one synchronously if none is ready
+    public static Sudoku.GeneratedSudoku take(String difficulty) {
+        BlockingQueue<Sudoku.GeneratedSudoku> queue = pools.get(difficulty);
+        PuzzleBank bank = PuzzleBank.shared();
+        if (bank != null && queue != null) {
+            Sudoku.GeneratedSudoku banked = bank.random(PuzzleBank.levelOf(difficulty), ThreadLocalRandom.current());
+            if (banked != null) return banked;
+        }
+        Sudoku.GeneratedSudoku gs = (queue == null) ? null : queue.poll();
+        return (gs != null) ? gs : Sudoku.SudokuGenerator.generate(difficulty);
+    }
+
+    // Number of ready puzzles for a difficulty
+    public static int available(String difficulty) {
+        BlockingQueue<Sudoku.GeneratedSudoku> queue = pools.get(difficulty);
+        return (queue == null) ? 0 : queue.size();
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * PuzzleReducer - symmetric and minimal clue removal for 9x9 puzzles.
+ *
+ * Clues are removed per orbit of the chosen symmetry (a cell and its mirror
+ * or rotation partner), in random order, while the solution stays unique.
+ * With holes = MINIMAL every orbit is tried once, which leaves a minimal
+ * puzzle: removing clues never makes a needed clue removable again, so after
+ * one pass every remaining clue (orbit) is needed. Random minimal puzzles
+ * land at 22-27 clues (mostly 23-25), symmetric ones a few higher.
+ *
+ * The board stays loaded in one BitmaskSolver for the whole reduction:
+ * a removal lifts the orbit's cells out of the solver's masks and a rejected
+ * one puts them back, instead of reloading 81 cells per check. Each check
+ * first tries to get the lifted cells back as naked or hidden singles
+ * (then the puzzle is still unique, no search); only otherwise does
+ * hasOtherSolution search, and only for a solution that differs in the
+ * lifted cells, stopping at the first one.
+ *
+ * Not thread-safe: use one instance per thread.
+ */
+public final class PuzzleReducer {
+
+    /** holes value for "remove everything that can go". */
+    public static final int MINIMAL = Integer.MAX_VALUE;
+
+    private static final BoardGeometry G = BoardGeometry.CLASSIC;
+
+    private final BitmaskSolver solver = new BitmaskSolver();
+    private final int[] solution = new int[81];
+    private final int[] order = new int[81];
+    private final int[] open = new int[2];
+    private final boolean[] back = new boolean[2];   // open cell recovered as a single
+
+    /**
+     * Blanks up to holes cells of grid (a uniquely solvable 9x9 board, flat,
+     * modified in place) in orbits of symmetry. Returns the number of cells
+     * removed; an orbit that would overshoot holes is skipped.
+     */
+    public int reduce(int[] grid, PuzzleDigger.Symmetry symmetry, int holes, RandomGenerator rand) {
+        if (grid.length != 81) throw new IllegalArgumentException("Expected 81 cells, got " + grid.length);
+        if (!solver.solve(grid, solution)) throw new IllegalArgumentException("Board has no solution");
+        long start = Metrics.start();
+        solver.load(grid);
+
+        // one representative per orbit, shuffled
+        int n = 0;
+        for (int i = 0; i < 81; i++) if (symmetry.partner(i) >= i) order[n++] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = order[i]; order[i] = order[j]; order[j] = t;
+        }
+
+        int removed = 0;
+        for (int k = 0; k < n && removed < holes; k++) {
+            int count = 0;
+            int a = order[k], b = symmetry.partner(a);
+            if (grid[a] != 0) open[count++] = a;
+            if (b != a && grid[b] != 0) open[count++] = b;
+            if (count == 0 || removed + count > holes) continue;
+
+            for (int i = 0; i < count; i++) solver.lift(open[i]);
+            if (recoveredBySingles(count) || !solver.hasOtherSolution(solution, open, count)) {
+                for (int i = 0; i < count; i++) grid[open[i]] = 0;
+                removed += count;
+            } else {
+                for (int i = 0; i < count; i++) solver.put(open[i], solution[open[i]]);
+            }
+        }
+        Metrics.DIG.record(start);
+        return removed;
+    }
+
+    // True if every open cell is forced back to its digit by naked/hidden singles
+    private boolean recoveredBySingles(int count) {
+        int left = count;
+        boolean progress = true;
+        while (left > 0 && progress) {
+            progress = false;
+            for (int i = 0; i < count; i++) {
+                if (back[i]) continue;
+                int cell = open[i];
+                int bit = 1 << (solution[cell] - 1);
+                int cand = solver.candidatesAt(cell);
+                if (cand == bit || ((cand & bit) != 0 && hiddenSingle(cell, bit))) {
+                    back[i] = true;
+                    solver.put(cell, solution[cell]);
+                    left--;
+                    progress = true;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (back[i]) {
+                back[i] = false;
+                solver.lift(open[i]);
+            }
+        }
+        return left == 0;
+    }
+
+    // No other empty cell in one of cell's units can take the digit
+    private boolean hiddenSingle(int cell, int bit) {
+        for (int u = 0; u < 3; u++) {
+            int[] unit = G.units[u == 0 ? G.row[cell] : u == 1 ? 9 + G.col[cell] : 18 + G.boxOf[cell]];
+            boolean elsewhere = false;
+            for (int other : unit) {
+                if (other != cell && solver.valueAt(other) == 0 && (solver.candidatesAt(other) & bit) != 0) {
+                    elsewhere = true;
+                    break;
+                }
+            }
+            if (!elsewhere) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+import java.time.LocalDate;
+import java.util.random.RandomGenerator;
+
+/**
+ * PuzzleSeed - reproducible puzzles: a 64-bit seed plus a difficulty always
+ * gives the same puzzle, on every JVM and every run.
+ *
+ * The generator is the normal one (GridFiller + PuzzleDigger + rating
+ * filter) driven by this class as its only random source. The stream is
+ * SplitMix64 with its own nextInt(bound), so nothing depends on how a JDK
+ * implements Random or SplittableRandom. Uniqueness checks are exact, so the
+ * configured solver engine does not change the result either.
+ *
+ * A puzzle can therefore be shared or saved as a short code ("H-1F2E3D4C5B6A7980")
+ * and regenerated on demand instead of storing the grid.
+ */
+public final class PuzzleSeed implements RandomGenerator {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    /** Random stream for seed + difficulty; the difficulty is mixed in so each level gets its own grid. */
+    public PuzzleSeed(long seed, String difficulty) {
+        this.state = mix(seed ^ (GOLDEN * (PuzzleBank.levelOf(normalize(difficulty)) + 1)));
+    }
+
+    /** The puzzle for seed and difficulty. */
+    public static Sudoku.GeneratedSudoku generate(long seed, String difficulty) {
+        String d = normalize(difficulty);
+        PuzzleSeed rand = new PuzzleSeed(seed, d);
+        return Sudoku.SudokuGenerator.generate(d, new GridFiller(rand), rand);
+    }
+
+    /** Seed of the daily puzzle for date (same for everyone). */
+    public static long daily(LocalDate date) {
+        return mix(date.toEpochDay() * GOLDEN);
+    }
+
+    // ---------- Codes ----------
+
+    /** Shareable code: difficulty initial + 16 hex digits, e.g. "M-00000000000004D2". */
+    public static String code(long seed, String difficulty) {
+        return Character.toUpperCase(normalize(difficulty).charAt(0)) + "-" + String.format("%016X", seed);
+    }
+
+    public static long seedOf(String code) {
+        checkCode(code);
+        return Long.parseUnsignedLong(code.substring(2), 16);
+    }
+
+    public static String difficultyOf(String code) {
+        checkCode(code);
+        switch (Character.toUpperCase(code.charAt(0))) {
+            case 'E': return "easy";
+            case 'H': return "hard";
+            default: return "medium";
+        }
+    }
+
+    private static void checkCode(String code) {
+        if (code == null || code.length() != 18 || code.charAt(1) != '-' || "EMHemh".indexOf(code.charAt(0)) < 0)
+            throw new IllegalArgumentException("Invalid puzzle code: " + code);
+    }
+
+    private static String normalize(String difficulty) {
+        String d = (difficulty == null) ? "medium" : difficulty.toLowerCase();
+        return (d.equals("easy") || d.equals("hard")) ? d : "medium";
+    }
+
+    // ---------- SplitMix64 ----------
+
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    // Rejection sampling, spelled out so the sequence never depends on JDK defaults
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        int limit = Integer.MAX_VALUE - (Integer.MAX_VALUE % bound);
+        int r;
+        do {
+            r = nextInt() >>> 1;
+        } while (r >= limit);
+        return r % bound;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
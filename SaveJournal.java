@@ -0,0 +1,437 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * SaveJournal - binary save file: a snapshot header plus an append-only journal of moves.
+ *
+ * Layout (big-endian):
+ *   header : magic "SDKJ", version, level, 0, errors, hints used, elapsed ms,
+ *            givens[81], entries[81], solution[81], CRC32C of all of it
+ *   record : type, cell, value, 0, elapsed ms (int), CRC32C of the first 8 bytes
+ *
+ * Attached to a GameSession as a listener, it turns every move, error and hint
+ * into a record packed in a long and queues it for the "autosave" thread, so
+ * the EDT never touches the disk. The writer takes whatever has queued up,
+ * writes it with one FileChannel write and forces it. After COMPACT_AFTER
+ * records it folds the journal into a fresh snapshot, written to a temp file
+ * and atomically renamed over the save. A crash loses at most the batch in
+ * flight. A torn record at the end of the file fails its checksum and is ignored on load.
+ * If a write fails the error goes to flush() and the next batch writes a
+ * fresh snapshot instead of appending, so the writer never gives up.
+ *
+ * Nothing is written for a new game until its first move, so opening a game
+ * does not overwrite the previous save.
+ */
+public class SaveJournal implements GameSession.Listener, AutoCloseable {
+
+    private static final int MAGIC = 0x53444B4A;         // "SDKJ"
+    private static final short VERSION = 1;
+    private static final int HEADER = 4 + 2 + 2 + 4 + 4 + 8 + 3 * 81 + 4;
+    private static final int RECORD = 12;
+    private static final int COMPACT_AFTER = 512;        // records
+    private static final long BATCH_MS = 100;            // extra wait to coalesce a burst of moves
+
+    // record types
+    static final int MOVE = 1;       // value 0 clears the cell
+    static final int ERROR = 2;
+    static final int HINT = 3;
+    static final int CLOCK = 4;      // elapsed time only (save, solve, close)
+
+    /** Game state as stored in a save: snapshot plus replayed journal. */
+    public static final class State {
+        public final String difficulty;
+        public final int[] givens = new int[81];
+        public final int[] entries = new int[81];
+        public final int[] solution = new int[81];
+        public int errors;
+        public int hintsUsed;
+        public long elapsedMillis;
+
+        State(String difficulty) {
+            this.difficulty = difficulty;
+        }
+
+        static State of(GameSession s) {
+            State st = new State(s.difficulty());
+            for (int i = 0; i < 81; i++) {
+                st.givens[i] = s.given(i / 9, i % 9);
+                st.entries[i] = s.get(i / 9, i % 9);
+                st.solution[i] = s.solution(i / 9, i % 9);
+            }
+            st.errors = s.errors();
+            st.hintsUsed = s.hintsUsed();
+            st.elapsedMillis = s.elapsedMillis();
+            return st;
+        }
+
+        void apply(long record) {
+            int type = (int) (record >>> 56), cell = (int) (record >>> 48) & 0xFF, value = (int) (record >>> 40) & 0xFF;
+            switch (type) {
+                case MOVE: entries[cell] = value; break;
+                case ERROR: errors++; break;
+                case HINT: hintsUsed++; break;
+                default: break;
+            }
+            elapsedMillis = record & 0xFFFFFFFFL;
+        }
+    }
+
+    /**
+     * Called on the writer thread after each successful write with the state
+     * now on disk. checkpoint is true when the write was a fresh snapshot (new
+     * game or compaction), and once more when the journal is closed.
+     */
+    public interface WriteListener {
+        void written(State state, boolean checkpoint);
+    }
+
+    private final Path path;
+    private final WriteListener listener;
+    private final Thread writer;
+
+    // session thread side
+    private State unsaved;                 // snapshot of a game that has no moves yet
+    private boolean started;               // current game has a snapshot queued or written
+
+    // handed over under lock
+    private final Object lock = new Object();
+    private State pendingSnapshot;
+    private long[] pending = new long[64];
+    private int pendingCount;
+    private long submitted, written;
+    private boolean closing;
+    private IOException lastError;
+
+    // writer side
+    private State mirror;                  // what the file currently holds
+    private FileChannel channel;
+    private boolean stale;                 // file is behind mirror; next batch rewrites the snapshot
+    private int records;
+    private final ByteBuffer recordBuf = ByteBuffer.allocate(RECORD * 64);
+    private final CRC32C crc = new CRC32C();
+
+    public SaveJournal(Path path) {
+        this(path, null);
+    }
+
+    public SaveJournal(Path path, WriteListener listener) {
+        this.path = path;
+        this.listener = listener;
+        writer = new Thread(this::writeLoop, "autosave");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    // ---------- Recording (session thread) ----------
+
+    /** Starts journaling session (from its next move on). */
+    public void attach(GameSession session) {
+        session.addListener(this);
+        unsaved = State.of(session);
+        started = false;
+    }
+
+    @Override
+    public void sessionChanged(GameSession session, GameSession.Change change, int row, int col) {
+        int cell = (row < 0) ? 0 : row * 9 + col;
+        switch (change) {
+            case RESET:
+                unsaved = State.of(session);
+                started = false;
+                return;
+            case PLACED:
+            case UNDO:
+            case REDO: record(session, MOVE, cell, session.get(row, col)); break;
+            case WRONG: record(session, ERROR, cell, 0); break;
+            case HINT: record(session, HINT, cell, 0); break;
+            case SOLVED: record(session, CLOCK, 0, 0); break;
+            default: break;
+        }
+    }
+
+    /** Records the elapsed time (e.g. on explicit save or before closing). */
+    public void checkpoint(GameSession session) {
+        record(session, CLOCK, 0, 0);
+    }
+
+    private void record(GameSession session, int type, int cell, int value) {
+        long rec = ((long) type << 56) | ((long) cell << 48) | ((long) value << 40)
+                | (Math.min(session.elapsedMillis(), 0xFFFFFFFFL));
+        synchronized (lock) {
+            if (unsaved != null) {
+                pendingSnapshot = unsaved;      // supersedes anything queued for the previous game
+                pendingCount = 0;
+                unsaved = null;
+                started = true;
+            }
+            if (!started) return;
+            if (pendingCount == pending.length) pending = java.util.Arrays.copyOf(pending, pending.length * 2);
+            pending[pendingCount++] = rec;
+            submitted++;
+            // only the first record of a batch wakes the writer; the rest ride along
+            if (pendingCount == 1) lock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until everything recorded so far is on disk (or timeoutMs passes).
+     * Returns the error of the last batch written, or null.
+     */
+    public IOException flush(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (lock) {
+            long target = submitted;
+            lock.notifyAll();
+            while (written < target) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) break;
+                lock.wait(left);
+            }
+            return lastError;
+        }
+    }
+
+    /** Flushes and stops the writer (waiting for its last listener call). */
+    @Override
+    public void close() {
+        try {
+            flush(2000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            closing = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join(2000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------- Writer thread ----------
+
+    private void writeLoop() {
+        long[] batch = new long[64];
+        while (true) {
+            State snap;
+            int n;
+            long upTo;
+            try {
+                synchronized (lock) {
+                    while (pendingCount == 0 && pendingSnapshot == null && !closing) lock.wait();
+                    if (!closing) lock.wait(BATCH_MS);
+                    if (pendingCount == 0 && pendingSnapshot == null && closing) break;
+                    snap = pendingSnapshot;
+                    pendingSnapshot = null;
+                    n = pendingCount;
+                    if (batch.length < n) batch = new long[pending.length];
+                    System.arraycopy(pending, 0, batch, 0, n);
+                    pendingCount = 0;
+                    upTo = submitted;
+                }
+            } catch (InterruptedException ex) {
+                break;
+            }
+
+            IOException error = null;
+            boolean checkpoint = false;
+            long start = Metrics.start();
+            try {
+                if (snap != null) {
+                    mirror = snap;
+                    stale = true;
+                }
+                if (n > 0) apply(batch, n);
+                checkpoint = stale || records >= COMPACT_AFTER;
+                if (checkpoint) writeSnapshot();
+                else if (n > 0) append(batch, n);
+            } catch (IOException ex) {
+                error = fail(ex);
+            } catch (RuntimeException ex) {
+                error = fail(new IOException(ex));
+            }
+            Metrics.SAVE.record(start);
+            if (error == null) error = notifyListener(checkpoint);
+            synchronized (lock) {
+                written = upTo;
+                lastError = error;
+                lock.notifyAll();
+            }
+        }
+        if (!stale) notifyListener(true);
+        closeChannel();
+    }
+
+    private IOException notifyListener(boolean checkpoint) {
+        if (listener == null || mirror == null) return null;
+        try {
+            listener.written(mirror, checkpoint);
+            return null;
+        } catch (RuntimeException ex) {
+            return new IOException(ex);
+        }
+    }
+
+    // A failed write leaves the file behind mirror; the next batch snapshots it again
+    private IOException fail(IOException ex) {
+        stale = true;
+        recordBuf.clear();
+        return ex;
+    }
+
+    private void apply(long[] batch, int n) {
+        for (int i = 0; i < n; i++) mirror.apply(batch[i]);
+    }
+
+    private void append(long[] batch, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            if (recordBuf.remaining() < RECORD) drain();
+            int start = recordBuf.position();
+            recordBuf.put((byte) (batch[i] >>> 56)).put((byte) (batch[i] >>> 48)).put((byte) (batch[i] >>> 40)).put((byte) 0);
+            recordBuf.putInt((int) batch[i]);
+            crc.reset();
+            crc.update(recordBuf.array(), start, 8);
+            recordBuf.putInt((int) crc.getValue());
+        }
+        drain();
+        channel.force(false);
+        records += n;
+    }
+
+    private void drain() throws IOException {
+        recordBuf.flip();
+        while (recordBuf.hasRemaining()) channel.write(recordBuf);
+        recordBuf.clear();
+    }
+
+    // Snapshot of mirror to a temp file, then atomic rename over the save;
+    // the old channel is only given up once the temp file is complete
+    private void writeSnapshot() throws IOException {
+        stale = true;
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = encodeHeader(mirror);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        closeChannel();
+        try {
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        records = 0;
+        stale = false;
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    // ---------- Format ----------
+
+    private static ByteBuffer encodeHeader(State s) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER);
+        buf.putInt(MAGIC).putShort(VERSION).put((byte) PuzzleBank.levelOf(s.difficulty)).put((byte) 0);
+        buf.putInt(s.errors).putInt(s.hintsUsed).putLong(s.elapsedMillis);
+        for (int v : s.givens) buf.put((byte) v);
+        for (int v : s.entries) buf.put((byte) v);
+        for (int v : s.solution) buf.put((byte) v);
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), 0, HEADER - 4);
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+        return buf;
+    }
+
+    /** True if file starts with the journal magic (older saves are text). */
+    public static boolean isJournal(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(4);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+            return buf.position() == 4 && buf.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads a save: the snapshot plus every journal record up to the first
+     * incomplete or corrupt one. Records are streamed through a small buffer,
+     * so the file is never held in memory. Returns null if it does not exist.
+     */
+    public static State read(Path file) throws IOException {
+        long start = Metrics.start();
+        try {
+            return readJournal(file);
+        } finally {
+            Metrics.LOAD.record(start);
+        }
+    }
+
+    private static State readJournal(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(RECORD * 256);
+            buf.limit(HEADER);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+            if (buf.hasRemaining() || buf.getInt(0) != MAGIC) throw new IOException("Not a save journal: " + file);
+            if (buf.getShort(4) != VERSION) throw new IOException("Unsupported save version " + buf.getShort(4));
+            CRC32C crc = new CRC32C();
+            crc.update(buf.array(), 0, HEADER - 4);
+            if (buf.getInt(HEADER - 4) != (int) crc.getValue()) throw new IOException("Save header is corrupt: " + file);
+
+            State s = new State(PuzzlePool.DIFFICULTIES[Math.min(buf.get(6), 2)]);
+            buf.position(8);
+            s.errors = buf.getInt();
+            s.hintsUsed = buf.getInt();
+            s.elapsedMillis = buf.getLong();
+            for (int i = 0; i < 81; i++) s.givens[i] = buf.get();
+            for (int i = 0; i < 81; i++) s.entries[i] = buf.get();
+            for (int i = 0; i < 81; i++) s.solution[i] = buf.get();
+
+            buf.clear();
+            boolean eof = false;
+            while (!eof) {
+                eof = ch.read(buf) < 0;
+                buf.flip();
+                while (buf.remaining() >= RECORD) {
+                    int start = buf.position();
+                    long rec = ((buf.get() & 0xFFL) << 56) | ((buf.get() & 0xFFL) << 48) | ((buf.get() & 0xFFL) << 40);
+                    buf.get();
+                    rec |= buf.getInt() & 0xFFFFFFFFL;
+                    crc.reset();
+                    crc.update(buf.array(), start, 8);
+                    if (buf.getInt() != (int) crc.getValue()) return s;     // torn or corrupt tail
+                    int cell = (int) (rec >>> 48) & 0xFF, value = (int) (rec >>> 40) & 0xFF;
+                    if (cell >= 81 || value > 9) return s;
+                    s.apply(rec);
+                }
+                buf.compact();
+            }
+            return s;
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * SaveStore - a directory of save slots plus a small index of them.
+ *
+ * Each slot is a SaveJournal file ("<slot>.sdj"). The game uses one slot per
+ * difficulty, or the puzzle code for seeded puzzles. index.dat holds one
+ * short entry per slot (difficulty, givens, filled cells, elapsed time, last
+ * modified), so the Load Game picker lists hundreds of saves without opening
+ * a single slot file. A slot is only read when it is loaded.
+ *
+ * Journals opened through the store report every write; the entry in memory
+ * follows each one, but index.dat is only rewritten when the journal writes a
+ * snapshot (new game, compaction) or is closed (slot switch, exit), so moves
+ * cost no extra file writes. The index goes to a temp file, renamed
+ * atomically, without a force: it can always be rebuilt, and is whenever it
+ * is missing or corrupt. An index that is merely stale (moves after the last
+ * checkpoint, then a crash) is caught by list(): an entry whose slot file has
+ * a different modification time is read again from the slot.
+ *
+ * The directory is -Dsudoku.saveDir (default "saves").
+ */
+public final class SaveStore {
+
+    public static final String PROPERTY = "sudoku.saveDir";
+
+    private static final int MAGIC = 0x53444B49;         // "SDKI"
+    private static final short VERSION = 1;
+    private static final String INDEX = "index.dat";
+    private static final String EXT = ".sdj";
+
+    private static SaveStore shared;
+
+    /** One slot as recorded in the index. */
+    public static final class Entry {
+        public final String slot;
+        public final String difficulty;
+        public final int givens;
+        public final int filled;
+        public final long elapsedMillis;
+        public final long lastModified;
+
+        Entry(String slot, String difficulty, int givens, int filled, long elapsedMillis, long lastModified) {
+            this.slot = slot;
+            this.difficulty = difficulty;
+            this.givens = givens;
+            this.filled = filled;
+            this.elapsedMillis = elapsedMillis;
+            this.lastModified = lastModified;
+        }
+
+        /** Share of the empty cells the player has filled, 0..100. */
+        public int progress() {
+            return (givens >= 81) ? 100 : (filled - givens) * 100 / (81 - givens);
+        }
+
+        @Override
+        public String toString() {
+            long secs = elapsedMillis / 1000;
+            return String.format("%s  -  %s, %d%%, %02d:%02d  -  %tF %<tR",
+                    slot, difficulty, progress(), secs / 60, secs % 60, lastModified);
+        }
+    }
+
+    private final Path dir;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private boolean loaded;
+    private boolean dirty;                  // entries differ from index.dat
+    private final Object indexLock = new Object();   // one index write at a time, outside the store lock
+
+    public SaveStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public static synchronized SaveStore shared() {
+        if (shared == null) shared = new SaveStore(Paths.get(System.getProperty(PROPERTY, "saves")));
+        return shared;
+    }
+
+    /** Slot for a session: its puzzle code if seeded, else its difficulty. */
+    public static String slotFor(GameSession session) {
+        return (session.puzzleCode() != null) ? session.puzzleCode() : session.difficulty();
+    }
+
+    // ---------- Slots ----------
+
+    /**
+     * All slots, most recently modified first. Reads the index and stats each
+     * slot file; a slot is only opened when it changed after its entry.
+     */
+    public List<Entry> list() throws IOException {
+        List<Entry> list;
+        boolean refreshed;
+        synchronized (this) {
+            ensureLoaded();
+            refreshed = refresh();
+            list = new ArrayList<>(entries.values());
+        }
+        if (refreshed) saveIndex();
+        list.sort(Comparator.comparingLong((Entry e) -> e.lastModified).reversed());
+        return list;
+    }
+
+    /** Journal writing slot; the index follows its writes. */
+    public SaveJournal open(String slot) {
+        return new SaveJournal(slotFile(slot), (state, checkpoint) -> update(slot, state, checkpoint));
+    }
+
+    /** Reads slot (streamed from its journal), or null if it does not exist. */
+    public SaveJournal.State load(String slot) throws IOException {
+        return SaveJournal.read(slotFile(slot));
+    }
+
+    public void delete(String slot) throws IOException {
+        synchronized (this) {
+            ensureLoaded();
+            Files.deleteIfExists(slotFile(slot));
+            if (entries.remove(slot) != null) dirty = true;
+        }
+        saveIndex();
+    }
+
+    // Autosave thread: the entry always, index.dat only at a checkpoint
+    private void update(String slot, SaveJournal.State s, boolean checkpoint) {
+        Path file = slotFile(slot);
+        long modified;
+        try {
+            modified = Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException ex) {
+            modified = System.currentTimeMillis();     // list() will read the slot again
+        }
+        try {
+            synchronized (this) {
+                ensureLoaded();
+                entries.remove(slot);
+                entries.put(slot, entry(slot, s, modified));
+                dirty = true;
+            }
+            if (checkpoint) saveIndex();
+        } catch (IOException ex) {
+            // the slot itself is saved; the index is rebuilt from the slots on next start
+            System.err.println("Could not update save index: " + ex);
+        }
+    }
+
+    private static Entry entry(String slot, SaveJournal.State s, long lastModified) {
+        int givens = 0, filled = 0;
+        for (int i = 0; i < 81; i++) {
+            if (s.givens[i] != 0) givens++;
+            if (s.entries[i] != 0) filled++;
+        }
+        return new Entry(slot, s.difficulty, givens, filled, s.elapsedMillis, lastModified);
+    }
+
+    private Path slotFile(String slot) {
+        if (slot == null || !slot.matches("[A-Za-z0-9_-]{1,64}"))
+            throw new IllegalArgumentException("Invalid save slot name: " + slot);
+        return dir.resolve(slot + EXT);
+    }
+
+    // ---------- Index ----------
+
+    // index.dat, if the entries changed since it was last written
+    private void saveIndex() throws IOException {
+        synchronized (indexLock) {
+            ByteBuffer buf;
+            synchronized (this) {
+                if (!dirty) return;
+                buf = encodeIndex();
+                dirty = false;
+            }
+            try {
+                writeIndex(buf);
+            } catch (IOException ex) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (loaded) return;
+        if (!readIndex()) rebuild();
+        loaded = true;
+    }
+
+    // Entries whose slot file changed (or vanished) since they were written; true if any did
+    private boolean refresh() {
+        boolean changed = false;
+        for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Entry> me = it.next();
+            try {
+                Path file = slotFile(me.getKey());
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                if (modified == me.getValue().lastModified) continue;
+                SaveJournal.State s = SaveJournal.read(file);
+                if (s == null) continue;
+                me.setValue(entry(me.getKey(), s, modified));
+                changed = true;
+            } catch (NoSuchFileException ex) {
+                it.remove();
+                changed = true;
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Skipping unreadable save " + me.getKey() + ": " + ex);
+            }
+        }
+        if (changed) dirty = true;
+        return changed;
+    }
+
+    // False if the index is missing or unreadable
+    private boolean readIndex() {
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(dir.resolve(INDEX), StandardOpenOption.READ)) {
+            buf = ByteBuffer.allocate((int) Math.min(ch.size(), 1 << 24));
+            while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+            buf.flip();
+        } catch (IOException ex) {
+            return false;
+        }
+        try {
+            if (buf.remaining() < 14 || buf.getInt() != MAGIC || buf.getShort() != VERSION) return false;
+            CRC32C crc = new CRC32C();
+            crc.update(buf.array(), 0, buf.limit() - 4);
+            if (buf.getInt(buf.limit() - 4) != (int) crc.getValue()) return false;
+            int count = buf.getInt();
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[buf.get() & 0xFF];
+                buf.get(name);
+                String slot = new String(name, StandardCharsets.US_ASCII);
+                String difficulty = PuzzlePool.DIFFICULTIES[Math.min(buf.get(), 2)];
+                int givens = buf.get(), filled = buf.get();
+                entries.put(slot, new Entry(slot, difficulty, givens, filled, buf.getLong(), buf.getLong()));
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            entries.clear();
+            return false;
+        }
+    }
+
+    // Index from the slot files themselves (only after the index was lost)
+    private void rebuild() throws IOException {
+        entries.clear();
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> slots = Files.newDirectoryStream(dir, "*" + EXT)) {
+            for (Path file : slots) {
+                String name = file.getFileName().toString();
+                String slot = name.substring(0, name.length() - EXT.length());
+                try {
+                    entries.put(slot, entry(slot, SaveJournal.read(file), Files.getLastModifiedTime(file).toMillis()));
+                } catch (IOException | RuntimeException ex) {
+                    System.err.println("Skipping unreadable save " + file + ": " + ex);
+                }
+            }
+        }
+        try {
+            writeIndex(encodeIndex());
+        } catch (IOException ex) {
+            dirty = true;       // the entries are good; the index is written at the next checkpoint
+            System.err.println("Could not write save index: " + ex);
+        }
+    }
+
+    private ByteBuffer encodeIndex() {
+        int size = 4 + 2 + 4 + 4;
+        for (Entry e : entries.values()) size += 1 + e.slot.length() + 3 + 16;
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(MAGIC).putShort(VERSION).putInt(entries.size());
+        for (Entry e : entries.values()) {
+            buf.put((byte) e.slot.length()).put(e.slot.getBytes(StandardCharsets.US_ASCII));
+            buf.put((byte) PuzzleBank.levelOf(e.difficulty)).put((byte) e.givens).put((byte) e.filled);
+            buf.putLong(e.elapsedMillis).putLong(e.lastModified);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), 0, size - 4);
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+        return buf;
+    }
+
+    private void writeIndex(ByteBuffer buf) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(INDEX + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+        try {
+            Files.move(tmp, dir.resolve(INDEX), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, dir.resolve(INDEX), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SolutionCache - bounded LRU cache of solved boards for the hint system.
+ *
+ * Keys are BoardModel Zobrist hashes. A cached grid is only returned if it
+ * agrees with every entry of the board being asked about, so a hash collision
+ * can never produce a wrong hint: any full valid grid that agrees with the
+ * entries is a solution of that board.
+ *
+ * The cache is shared by all sessions (and survives save/load, since a loaded
+ * board hashes to the same key). Hit/miss counters are kept for reporting.
+ */
+public class SolutionCache {
+
+    static final int CAPACITY = Integer.getInteger("sudoku.solutionCacheSize", 256);
+
+    private static final Map<Long, int[]> cache = new LinkedHashMap<Long, int[]>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private static final LongAdder fastPath = new LongAdder();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    /** Cached solution of board (flat, 81 cells) under key, or null. */
+    public static int[] get(long key, int[] board) {
+        int[] solved;
+        synchronized (cache) {
+            solved = cache.get(key);
+        }
+        if (solved != null && agrees(solved, board)) {
+            hits.increment();
+            return solved.clone();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public static void put(long key, int[] solved) {
+        synchronized (cache) {
+            cache.put(key, solved.clone());
+        }
+    }
+
+    /** Counts a hint answered from the session's own solution without a lookup. */
+    static void recordFastPath() {
+        fastPath.increment();
+    }
+
+    public static long fastPathHits() {
+        return fastPath.sum();
+    }
+
+    public static long hits() {
+        return hits.sum();
+    }
+
+    public static long misses() {
+        return misses.sum();
+    }
+
+    public static String stats() {
+        return "fast=" + fastPathHits() + " hits=" + hits() + " misses=" + misses();
+    }
+
+    private static boolean agrees(int[] solved, int[] board) {
+        for (int i = 0; i < 81; i++) {
+            if (board[i] != 0 && board[i] != solved[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * SolverEngine - common contract for the Sudoku solving engines.
+ *
+ * Boards are flat int[81] arrays in row-major order, 0 = empty cell
+ * (int[N*N] for the larger boards, which only GridSolver handles).
+ * Engines keep reusable working state, so an instance is not thread-safe;
+ * use one per thread (see Sudoku.SudokuSolver.engine()).
+ *
+ * The engine is picked with -Dsudoku.solver=bitmask|dlx|grid|parallel
+ * (default: bitmask, single-threaded). Boards larger than 9x9 get theirs from
+ * forSize() (GridGenerator's digger).
+ *
+ * Searches stop early when the calling thread is interrupted (see HintService);
+ * the result of an interrupted call is meaningless and must be discarded.
+ */
+public interface SolverEngine {
+
+    String PROPERTY = "sudoku.solver";
+
+    /** Short engine name, as used in the sudoku.solver property. */
+    String name();
+
+    /** Solves board into out. Returns false if the board has no solution. */
+    boolean solve(int[] board, int[] out);
+
+    /**
+     * Counts solutions of board, stopping as soon as limit is reached.
+     * The first solution found is written into out when out is not null.
+     */
+    int countSolutions(int[] board, int limit, int[] out);
+
+    static SolverEngine create(String name) {
+        switch (name == null ? "bitmask" : name.toLowerCase()) {
+            case "bitmask": return new BitmaskSolver();
+            case "dlx": return new DlxSolver();
+            case "grid": return new GridSolver(BoardGeometry.CLASSIC);
+            case "parallel": return new ParallelSolver(BoardGeometry.CLASSIC);
+            default: throw new IllegalArgumentException("Unknown solver engine: " + name);
+        }
+    }
+
+    static SolverEngine fromConfig() {
+        return create(System.getProperty(PROPERTY, "bitmask"));
+    }
+
+    /**
+     * Engine for an N x N board: the configured engine for 9x9; for larger
+     * boards ParallelSolver on multi-core machines, GridSolver otherwise.
+     */
+    static SolverEngine forSize(int size) {
+        if (size == 9) return fromConfig();
+        BoardGeometry g = BoardGeometry.of(size);
+        return Runtime.getRuntime().availableProcessors() > 1 ? new ParallelSolver(g) : new GridSolver(g);
+    }
+}
@@ -1,80 +1,63 @@
 import javax.swing.*;
-import javax.swing.BorderFactory;
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Insets;
 import java.awt.event.*;
 import java.io.File;
-import java.io.PrintWriter;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
- * Sudoku.java - single-file final
+ * Sudoku.java - Swing view of a GameSession
  * Features:
  * - Generator (random full-solution + remove by difficulty)
  * - Count-up timer (javax.swing.Timer)
  * - Full Helper hint system (Level 4) with Auto Apply
+ * - Painted, resizable board (see BoardView)
  * - Win detection (auto-stop timer, lock board)
- * - Save / Load progress to "savegame.dat"
+ * - Undo / redo (buttons, Ctrl+Z / Ctrl+Y)
+ * - Autosave after every move into a save slot per difficulty (see SaveStore, SaveJournal)
+ *
+ * Game state (entries, errors, hints, clock) lives in GameSession; this class
+ * renders it, forwards clicks and reacts to the session's change events.
  *
  * Usage: new Sudoku("easy"|"medium"|"hard")
  */
 public class Sudoku {
 
-    // Inner Tile class (button that represents a cell)
-    class Tile extends JButton {
-        int r, c;
-        Tile(int r, int c) {
-            super("");
-            this.r = r;
-            this.c = c;
-            setMargin(new Insets(0,0,0,0));
-            setFocusPainted(false);
-        }
-    }
-
     // UI & board
     private final int boardWidth = 600, boardHeight = 650;
-    private String[] puzzle;      // current puzzle with '-' for empty
-    private String[] solution;    // string rows of solution digits
-    private String difficulty;    // current difficulty
+    private final GameSession session;
 
     private final JFrame frame = new JFrame("Sudoku");
     private final JLabel statusLabel = new JLabel();
-    private final JPanel boardPanel = new JPanel();
     private final JPanel controlPanel = new JPanel();
 
-    private Tile[][] tiles = new Tile[9][9];
+    private BoardView board;
     private JButton[] numButtons = new JButton[9];
+    private final JButton hintBtn = new JButton("Full Hint");
+    private HintService.Request pendingHint;  // hint being computed in the background
 
-    // Timer (count-up)
+    // Timer (refreshes the label; the clock itself is in GameSession)
     private javax.swing.Timer gameTimer;  // use javax.swing.Timer explicitly
-    private int elapsedSeconds = 0;
     private final JLabel timerLabel = new JLabel("Time: 00:00");
 
-    // Hint system
-    private int lastHintRow = -1;
-    private int lastHintCol = -1;
-    private int lastHintValue = -1;
-    private int hintUsage = 0;
-    private final int MAX_HINTS = 5;
-
-    // Error tracking
-    private int errors = 0;
-
-    // Save/load filename
-    private final String SAVE_FILE = "savegame.dat";
+    // Save slots; the current slot's journal is written in the background after every move
+    private final SaveStore saves = SaveStore.shared();
+    private SaveJournal journal;
+    private String journalSlot;
+    // single save file of older versions, still offered when there are no slots
+    private final String LEGACY_SAVE_FILE = "savegame.dat";
 
     // Constructor
     public Sudoku(String difficulty) {
-        this.difficulty = (difficulty == null) ? "medium" : difficulty.toLowerCase();
-
-        // generate puzzle + solution
-        GeneratedSudoku gs = SudokuGenerator.generate(this.difficulty);
-        this.puzzle = gs.puzzle;
-        this.solution = gs.solution;
+        // puzzle + solution from the background pool (generates here only if the pool is empty)
+        session = GameSession.newGame(difficulty);
+        session.addListener(this::sessionChanged);
+        useSlot(SaveStore.slotFor(session));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> journal.close(), "autosave-close"));
 
         buildUI();
         startTimer();
@@ -83,13 +66,19 @@ public class Sudoku {
     // ---------- UI ----------
     private void buildUI() {
         frame.setSize(boardWidth, boardHeight);
-        frame.setResizable(false);
+        frame.setMinimumSize(new Dimension(420, 480));
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                journal.checkpoint(session);   // keep the clock; close() flushes it on exit
+            }
+        });
         frame.setLocationRelativeTo(null);
         frame.setLayout(new BorderLayout());
 
         statusLabel.setFont(new Font("Arial", Font.BOLD, 18));
-        statusLabel.setText("Difficulty: " + difficulty.toUpperCase() + "    Errors: 0");
+        updateStatus();
         timerLabel.setFont(new Font("Arial", Font.PLAIN, 16));
         timerLabel.setHorizontalAlignment(JLabel.RIGHT);
 
@@ -98,9 +87,8 @@ public class Sudoku {
         topPanel.add(timerLabel, BorderLayout.EAST);
         frame.add(topPanel, BorderLayout.NORTH);
 
-        boardPanel.setLayout(new GridLayout(9,9));
-        setupBoard();
-        frame.add(boardPanel, BorderLayout.CENTER);
+        board = new BoardView(session, this::cellClicked);
+        frame.add(board, BorderLayout.CENTER);
 
         controlPanel.setLayout(new GridLayout(2,5,6,6));
         for (int i = 0; i < 9; i++) {
@@ -112,7 +100,6 @@ public class Sudoku {
             controlPanel.add(b);
         }
 
-        JButton hintBtn = new JButton("Full Hint");
         hintBtn.setFont(new Font("Arial", Font.BOLD, 14));
         hintBtn.addActionListener(e -> giveFullHelperHint());
         controlPanel.add(hintBtn);
@@ -122,6 +109,27 @@ public class Sudoku {
         applyHintBtn.addActionListener(e -> applyHint());
         controlPanel.add(applyHintBtn);
 
+        JButton undoBtn = new JButton("Undo");
+        undoBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        undoBtn.addActionListener(e -> session.undo());
+        controlPanel.add(undoBtn);
+
+        JButton redoBtn = new JButton("Redo");
+        redoBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        redoBtn.addActionListener(e -> session.redo());
+        controlPanel.add(redoBtn);
+
+        // Ctrl+Z / Ctrl+Y anywhere in the window
+        JRootPane root = frame.getRootPane();
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("control Z"), "undo");
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("control Y"), "redo");
+        root.getActionMap().put("undo", new AbstractAction() {
+            @Override public void actionPerformed(ActionEvent e) { session.undo(); }
+        });
+        root.getActionMap().put("redo", new AbstractAction() {
+            @Override public void actionPerformed(ActionEvent e) { session.redo(); }
+        });
+
         JButton saveBtn = new JButton("Save Game");
         saveBtn.setFont(new Font("Arial", Font.BOLD, 14));
         saveBtn.addActionListener(e -> saveGame());
@@ -139,69 +147,47 @@ public class Sudoku {
         frame.setVisible(true);
     }
 
-    // Setup board tiles
-    private void setupBoard() {
-        boardPanel.removeAll();
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                Tile t = new Tile(r,c);
-                char ch = puzzle[r].charAt(c);
-                if (ch != '-') {
-                    t.setText(String.valueOf(ch));
-                    t.setEnabled(false);
-                    t.setBackground(Color.LIGHT_GRAY);
-                    t.setFont(new Font("Arial", Font.BOLD, 20));
-                } else {
-                    t.setText("");
-                    t.setEnabled(true);
-                    t.setBackground(Color.WHITE);
-                    t.setFont(new Font("Arial", Font.PLAIN, 20));
-                }
+    // Click on an empty cell (BoardView ignores filled ones)
+    private void cellClicked(int r, int c) {
+        JButton selectedNum = getSelectedNumberButton();
+        if (selectedNum != null) {
+            // session checks the digit and reports PLACED / WRONG
+            session.place(r, c, Integer.parseInt(selectedNum.getText()));
+        } else {
+            // no number selected -> show possible numbers
+            showPossibleNumbersForTile(r, c);
+        }
+    }
 
-                int top = (r % 3 == 0) ? 3 : 1;
-                int left = (c % 3 == 0) ? 3 : 1;
-                int bottom = (r == 8) ? 3 : 1;
-                int right = (c == 8) ? 3 : 1;
-                t.setBorder(BorderFactory.createMatteBorder(top, left, bottom, right, Color.BLACK));
-
-                t.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        Tile src = (Tile) e.getSource();
-                        JButton selectedNum = getSelectedNumberButton();
-                        if (selectedNum != null) {
-                            String chosen = selectedNum.getText();
-                            if (!src.getText().isEmpty()) return; // already filled
-
-                            String correct = String.valueOf(solution[src.r].charAt(src.c));
-                            if (chosen.equals(correct)) {
-                                src.setText(chosen);
-                                src.setForeground(new Color(10,90,160));
-                                src.setEnabled(false);
-                                src.setBackground(new Color(220,255,240));
-                                checkWinAndStopIfDone();
-                            } else {
-                                errors++;
-                                statusLabel.setText("Difficulty: " + difficulty.toUpperCase() + "    Errors: " + errors);
-                                Color prev = src.getBackground();
-                                src.setBackground(new Color(255,200,200));
-                                javax.swing.Timer flash = new javax.swing.Timer(220, ev -> src.setBackground(prev));
-                                flash.setRepeats(false);
-                                flash.start();
-                            }
-                        } else {
-                            // no number selected -> show possible numbers
-                            showPossibleNumbersForTile(src.r, src.c);
-                        }
-                    }
-                });
-
-                tiles[r][c] = t;
-                boardPanel.add(t);
-            }
+    private void updateStatus() {
+        statusLabel.setText("Difficulty: " + session.difficulty().toUpperCase() + "    Errors: " + session.errors());
+    }
+
+    // ---------- Session events ----------
+    private void sessionChanged(GameSession s, GameSession.Change change, int r, int c) {
+        switch (change) {
+            case PLACED:
+            case UNDO:
+            case REDO:
+                board.repaintCell(r, c);
+                cancelPendingHint();
+                break;
+            case WRONG:
+                updateStatus();
+                board.flash(r, c);
+                break;
+            case SOLVED:
+                onSolved();
+                break;
+            case RESET:
+                cancelPendingHint();
+                board.repaint();
+                updateStatus();
+                updateTimerLabel();
+                break;
+            default:
+                break;
         }
-        boardPanel.revalidate();
-        boardPanel.repaint();
     }
 
     // Return selected number button or null
@@ -229,10 +215,11 @@ public class Sudoku {
 
     // Show possible numbers for a tile based on current board state
     private void showPossibleNumbersForTile(int r, int c) {
-        if (!tiles[r][c].isEnabled()) return;
+        if (session.get(r, c) != 0) return;
         ArrayList<Integer> possibles = new ArrayList<>();
+        int mask = session.candidates(r, c);
         for (int n = 1; n <= 9; n++) {
-            if (isValidPlacementByCurrentBoard(r, c, n)) possibles.add(n);
+            if ((mask & (1 << (n - 1))) != 0) possibles.add(n);
         }
         if (possibles.isEmpty()) {
             JOptionPane.showMessageDialog(frame, "No valid numbers (board may be inconsistent).", "Info", JOptionPane.INFORMATION_MESSAGE);
@@ -241,178 +228,175 @@ public class Sudoku {
         }
     }
 
-    // Check validity against current board entries
-    private boolean isValidPlacementByCurrentBoard(int r, int c, int val) {
-        for (int i = 0; i < 9; i++) {
-            String tr = tiles[r][i].getText();
-            if (!tr.isEmpty() && Integer.parseInt(tr) == val) return false;
-            String tc = tiles[i][c].getText();
-            if (!tc.isEmpty() && Integer.parseInt(tc) == val) return false;
-        }
-        int br = (r/3)*3, bc = (c/3)*3;
-        for (int i = br; i < br+3; i++)
-            for (int j = bc; j < bc+3; j++) {
-                String t = tiles[i][j].getText();
-                if (!t.isEmpty() && Integer.parseInt(t) == val) return false;
-            }
-        return true;
-    }
-
     // ---------- Timer ----------
     private void startTimer() {
-        elapsedSeconds = 0;
-        timerLabel.setText("Time: 00:00");
-        gameTimer = new javax.swing.Timer(1000, new ActionListener() {
-            @Override public void actionPerformed(ActionEvent e) {
-                elapsedSeconds++;
-                int mm = elapsedSeconds / 60;
-                int ss = elapsedSeconds % 60;
-                timerLabel.setText(String.format("Time: %02d:%02d", mm, ss));
-            }
-        });
+        session.startClock();
+        updateTimerLabel();
+        if (gameTimer == null) {
+            gameTimer = new javax.swing.Timer(1000, new ActionListener() {
+                @Override public void actionPerformed(ActionEvent e) {
+                    updateTimerLabel();
+                }
+            });
+        }
         gameTimer.start();
     }
     private void stopTimer() {
+        session.stopClock();
         if (gameTimer != null) gameTimer.stop();
+        updateTimerLabel();
+    }
+    private void updateTimerLabel() {
+        int secs = session.elapsedSeconds();
+        timerLabel.setText(String.format("Time: %02d:%02d", secs / 60, secs % 60));
     }
 
     // ---------- Full Helper (Level 4) ----------
-    // Finds solved board from current state and returns first empty cell as hint
+    // Solves the current board in the background; the button shows a thinking state meanwhile
     private void giveFullHelperHint() {
-        if (hintUsage >= MAX_HINTS) {
-            JOptionPane.showMessageDialog(frame, "Max hints used (" + MAX_HINTS + ").", "Hint", JOptionPane.INFORMATION_MESSAGE);
-            return;
-        }
+        if (pendingHint != null) return; // already thinking
+        hintBtn.setText("Thinking...");
+        hintBtn.setEnabled(false);
+        pendingHint = HintService.request(session, SwingUtilities::invokeLater, hint -> {
+            pendingHint = null;
+            resetHintButton();
+            showHint(hint);
+        });
+    }
 
-        int[][] current = new int[9][9];
-        for (int r = 0; r < 9; r++)
-            for (int c = 0; c < 9; c++) {
-                String t = tiles[r][c].getText();
-                current[r][c] = (t == null || t.isEmpty()) ? 0 : Integer.parseInt(t);
-            }
+    // Board changed: the running hint would be stale, drop it
+    private void cancelPendingHint() {
+        if (pendingHint == null) return;
+        pendingHint.cancel();
+        pendingHint = null;
+        resetHintButton();
+    }
 
-        int[][] solved = SudokuSolver.solve(current);
-        if (solved == null) {
-            JOptionPane.showMessageDialog(frame, "Board has no valid solution (inconsistent).", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+    private void resetHintButton() {
+        hintBtn.setText("Full Hint");
+        hintBtn.setEnabled(true);
+    }
 
-        // find first empty tile and provide rich explanation
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                if (tiles[r][c].getText().isEmpty()) {
-                    int correct = solved[r][c];
-
-                    String message =
-                        "FULL HELPER HINT\n\n" +
-                        "Position: Row " + (r+1) + ", Column " + (c+1) + "\n" +
-                        "Suggested value: " + correct + "\n\n" +
-                        "Reasoning (brief):\n" +
-                        "- The solver computed a consistent full solution from the current board state.\n" +
-                        "- Given current row/column/box entries, only number " + correct + " fits this cell without conflict.\n\n" +
-                        "Options:\n" +
-                        "1) Press 'Auto Apply Hint' to fill this cell automatically.\n" +
-                        "2) Manually place the number to practice solving.\n\n" +
-                        "Hints used: " + (hintUsage+1) + " / " + MAX_HINTS;
-
-                    JOptionPane.showMessageDialog(frame, message, "Full Helper", JOptionPane.INFORMATION_MESSAGE);
-
-                    lastHintRow = r;
-                    lastHintCol = c;
-                    lastHintValue = correct;
-                    hintUsage++;
-                    return;
-                }
-            }
+    // Shows the first empty cell of the solved board as hint
+    private void showHint(GameSession.Hint hint) {
+        switch (hint.status) {
+            case LIMIT_REACHED:
+                JOptionPane.showMessageDialog(frame, "Max hints used (" + GameSession.MAX_HINTS + ").", "Hint", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            case NO_SOLUTION:
+                JOptionPane.showMessageDialog(frame, "Board has no valid solution (inconsistent).", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            case NO_EMPTY_CELL:
+                JOptionPane.showMessageDialog(frame, "No empty cells found. Puzzle may already be solved.", "Info", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            case TIMEOUT:
+                JOptionPane.showMessageDialog(frame, "Hint took too long and was cancelled. Try again.", "Hint", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            case STALE:
+                return; // board changed while solving
+            default:
+                break;
         }
 
-        JOptionPane.showMessageDialog(frame, "No empty cells found. Puzzle may already be solved.", "Info", JOptionPane.INFORMATION_MESSAGE);
+        String message =
+            "FULL HELPER HINT\n\n" +
+            "Position: Row " + (hint.row+1) + ", Column " + (hint.col+1) + "\n" +
+            "Suggested value: " + hint.value + "\n\n" +
+            "Reasoning (brief):\n" +
+            "- The solver computed a consistent full solution from the current board state.\n" +
+            "- Given current row/column/box entries, only number " + hint.value + " fits this cell without conflict.\n\n" +
+            "Options:\n" +
+            "1) Press 'Auto Apply Hint' to fill this cell automatically.\n" +
+            "2) Manually place the number to practice solving.\n\n" +
+            "Hints used: " + session.hintsUsed() + " / " + GameSession.MAX_HINTS;
+
+        JOptionPane.showMessageDialog(frame, message, "Full Helper", JOptionPane.INFORMATION_MESSAGE);
     }
 
     // Apply last hint (auto fill)
     private void applyHint() {
-        if (lastHintRow == -1) {
+        if (!session.applyHint()) {
             JOptionPane.showMessageDialog(frame, "No hint available. Use 'Full Hint' first.", "Hint", JOptionPane.INFORMATION_MESSAGE);
-            return;
         }
-        tiles[lastHintRow][lastHintCol].setText(String.valueOf(lastHintValue));
-        tiles[lastHintRow][lastHintCol].setEnabled(false);
-        tiles[lastHintRow][lastHintCol].setBackground(new Color(220,255,240));
-        checkWinAndStopIfDone();
-
-        lastHintRow = lastHintCol = lastHintValue = -1;
     }
 
     // ---------- Win detection ----------
-    private void checkWinAndStopIfDone() {
-        if (isSolved()) {
-            stopTimer();
-            JOptionPane.showMessageDialog(frame,
-                "Congratulations — you solved the puzzle!\nTime: " +
-                String.format("%02d:%02d", elapsedSeconds/60, elapsedSeconds%60) +
-                "\nErrors: " + errors, "Solved", JOptionPane.INFORMATION_MESSAGE);
-
-            // lock board
-            for (int r = 0; r < 9; r++)
-                for (int c = 0; c < 9; c++)
-                    tiles[r][c].setEnabled(false);
-        }
-    }
-
-    private boolean isSolved() {
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                String t = tiles[r][c].getText();
-                if (t == null || t.isEmpty()) return false;
-                if (!t.equals(String.valueOf(solution[r].charAt(c)))) return false;
-            }
-        }
-        return true;
+    private void onSolved() {
+        stopTimer();
+        int secs = session.elapsedSeconds();
+        JOptionPane.showMessageDialog(frame,
+            "Congratulations — you solved the puzzle!\nTime: " +
+            String.format("%02d:%02d", secs/60, secs%60) +
+            "\nErrors: " + session.errors(), "Solved", JOptionPane.INFORMATION_MESSAGE);
+        // board is locked by itself: every cell is filled, and undo stops once solved
     }
 
     // ---------- Save / Load ----------
+    // Moves are already journaled; this records the clock and waits for the writer
     private void saveGame() {
         try {
-            PrintWriter pw = new PrintWriter(new File(SAVE_FILE));
-
-            // difficulty
-            pw.println(difficulty);
-            // elapsed seconds
-            pw.println(elapsedSeconds);
-
-            // puzzle original rows
-            for (int r = 0; r < 9; r++) {
-                pw.println(puzzle[r]);
-            }
-
-            // current board state 9 lines of 9 chars (use '-' for empty)
-            for (int r = 0; r < 9; r++) {
-                StringBuilder sb = new StringBuilder();
-                for (int c = 0; c < 9; c++) {
-                    String t = tiles[r][c].getText();
-                    sb.append((t == null || t.isEmpty()) ? '-' : t.charAt(0));
-                }
-                pw.println(sb.toString());
-            }
-
-            // solution rows
-            for (int r = 0; r < 9; r++) pw.println(solution[r]);
-
-            pw.close();
-            JOptionPane.showMessageDialog(frame, "Game saved to " + SAVE_FILE, "Saved", JOptionPane.INFORMATION_MESSAGE);
+            journal.checkpoint(session);
+            java.io.IOException err = journal.flush(2000);
+            if (err != null) throw err;
+            JOptionPane.showMessageDialog(frame, "Game saved to slot \"" + journalSlot + "\"", "Saved", JOptionPane.INFORMATION_MESSAGE);
 
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(frame, "Error saving game: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    // Picker lists the slots from the save index; only the chosen slot is read
     private void loadGame() {
         try {
-            File f = new File(SAVE_FILE);
-            if (!f.exists()) {
-                JOptionPane.showMessageDialog(frame, "No save file found.", "Load", JOptionPane.INFORMATION_MESSAGE);
+            journal.flush(2000);
+            java.util.List<SaveStore.Entry> slots = saves.list();
+            if (slots.isEmpty()) {
+                File legacy = new File(LEGACY_SAVE_FILE);
+                if (legacy.exists()) {
+                    loadLegacy(legacy);
+                } else {
+                    JOptionPane.showMessageDialog(frame, "No saved games found.", "Load", JOptionPane.INFORMATION_MESSAGE);
+                }
                 return;
             }
+            SaveStore.Entry choice = (SaveStore.Entry) JOptionPane.showInputDialog(frame, "Choose a saved game:",
+                "Load Game", JOptionPane.PLAIN_MESSAGE, null, slots.toArray(), slots.get(0));
+            if (choice == null) return;
+            SaveJournal.State s = saves.load(choice.slot);
+            if (s == null) {
+                JOptionPane.showMessageDialog(frame, "Save slot \"" + choice.slot + "\" is missing.", "Load", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            session.reset(s.difficulty, s.givens, s.entries, s.solution,
+                (int) (s.elapsedMillis / 1000), s.errors, s.hintsUsed);
+            useSlot(choice.slot);
+            startTimer();
+            JOptionPane.showMessageDialog(frame, "Game loaded from slot \"" + choice.slot + "\"", "Loaded", JOptionPane.INFORMATION_MESSAGE);
+
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(frame, "Error loading save: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Points autosave at slot, closing the previous slot's journal
+    private void useSlot(String slot) {
+        if (slot.equals(journalSlot)) return;
+        if (journal != null) {
+            journal.close();
+            session.removeListener(journal);
+        }
+        journal = saves.open(slot);
+        journalSlot = slot;
+        journal.attach(session);
+    }
+
+    // Single-file save of older versions (29-line text, or a journal); play continues in a slot
+    private void loadLegacy(File f) throws Exception {
+        if (SaveJournal.isJournal(f.toPath())) {
+            SaveJournal.State s = SaveJournal.read(f.toPath());
+            session.reset(s.difficulty, s.givens, s.entries, s.solution,
+                (int) (s.elapsedMillis / 1000), s.errors, s.hintsUsed);
+        } else {
             Scanner sc = new Scanner(f);
 
             String loadedDifficulty = sc.nextLine().trim();
@@ -429,53 +413,15 @@ public class Sudoku {
 
             sc.close();
 
-            // apply loaded data
-            this.difficulty = loadedDifficulty;
-            this.elapsedSeconds = loadedSeconds;
-            this.puzzle = loadedPuzzle;
-            this.solution = loadedSolution;
-
-            // rebuild UI board texts and enabled state
-            for (int r = 0; r < 9; r++) {
-                for (int c = 0; c < 9; c++) {
-                    char orig = puzzle[r].charAt(c);
-                    char cur = loadedCurrent[r].charAt(c);
-                    if (orig != '-') {
-                        tiles[r][c].setText(String.valueOf(orig));
-                        tiles[r][c].setEnabled(false);
-                        tiles[r][c].setBackground(Color.LIGHT_GRAY);
-                    } else {
-                        if (cur == '-') {
-                            tiles[r][c].setText("");
-                            tiles[r][c].setEnabled(true);
-                            tiles[r][c].setBackground(Color.WHITE);
-                        } else {
-                            tiles[r][c].setText(String.valueOf(cur));
-                            tiles[r][c].setEnabled(false); // filled by user or hint
-                            tiles[r][c].setBackground(new Color(220,255,240));
-                        }
-                    }
-                }
-            }
-
-            // update labels and restart timer at loadedSeconds
-            statusLabel.setText("Difficulty: " + difficulty.toUpperCase() + "    Errors: " + errors);
-            timerLabel.setText(String.format("Time: %02d:%02d", elapsedSeconds/60, elapsedSeconds%60));
-            // restart timer from loadedSeconds
-            if (gameTimer != null) gameTimer.stop();
-            gameTimer = new javax.swing.Timer(1000, new ActionListener() {
-                @Override public void actionPerformed(ActionEvent e) {
-                    elapsedSeconds++;
-                    timerLabel.setText(String.format("Time: %02d:%02d", elapsedSeconds/60, elapsedSeconds%60));
-                }
-            });
-            gameTimer.start();
-
-            JOptionPane.showMessageDialog(frame, "Game loaded from " + SAVE_FILE, "Loaded", JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(frame, "Error loading save: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            // apply loaded data (session fires RESET -> board and labels refresh);
+            // errors and hints are not in the text save, so they carry over
+            session.reset(loadedDifficulty, PuzzleBank.toCells(loadedPuzzle), PuzzleBank.toCells(loadedCurrent),
+                PuzzleBank.toCells(loadedSolution), loadedSeconds, session.errors(), session.hintsUsed());
         }
+        useSlot(SaveStore.slotFor(session));
+        startTimer();
+
+        JOptionPane.showMessageDialog(frame, "Game loaded from " + LEGACY_SAVE_FILE, "Loaded", JOptionPane.INFORMATION_MESSAGE);
     }
 
     // ---------- Generator + support ----------
@@ -485,135 +431,62 @@ public class Sudoku {
     }
 
     static class SudokuGenerator {
-        private static final Random rand = new Random();
-
+        // Stages and best-of selection live in GenerationPipeline; this is the inline run
         static GeneratedSudoku generate(String difficulty) {
-            String[] solution = generateFullSolution();
-            String[] puzzle = generatePuzzleFromSolution(solution, difficulty);
-            return new GeneratedSudoku(puzzle, solution);
+            GridFiller filler = GridFiller.local();
+            return generate(difficulty, filler, filler.random());
         }
 
-        static String[] generateFullSolution() {
-            int[][] grid = new int[9][9];
-            fillGrid(grid);
-            String[] out = new String[9];
-            for (int r = 0; r < 9; r++) {
-                StringBuilder sb = new StringBuilder();
-                for (int c = 0; c < 9; c++) sb.append(grid[r][c]);
-                out[r] = sb.toString();
-            }
-            return out;
+        // Same generator on explicit random sources; reproducible when they are seeded (see PuzzleSeed)
+        static GeneratedSudoku generate(String difficulty, GridFiller filler, RandomGenerator rand) {
+            return GenerationPipeline.generate(difficulty, filler, rand);
         }
 
-        private static boolean fillGrid(int[][] g) {
-            for (int r = 0; r < 9; r++) {
-                for (int c = 0; c < 9; c++) {
-                    if (g[r][c] == 0) {
-                        ArrayList<Integer> nums = new ArrayList<>();
-                        for (int i = 1; i <= 9; i++) nums.add(i);
-                        Collections.shuffle(nums);
-                        for (int n : nums) {
-                            if (isValid(g, r, c, n)) {
-                                g[r][c] = n;
-                                if (fillGrid(g)) return true;
-                                g[r][c] = 0;
-                            }
-                        }
-                        return false;
-                    }
-                }
-            }
-            return true;
+        // Grid comes from the per-thread GridFiller (primitive, no garbage); strings only at the edge
+        static String[] generateFullSolution() {
+            return generateFullSolution(GridFiller.local());
         }
 
-        private static boolean isValid(int[][] g, int r, int c, int val) {
-            for (int i = 0; i < 9; i++) {
-                if (g[r][i] == val) return false;
-                if (g[i][c] == val) return false;
+        static String[] generateFullSolution(GridFiller filler) {
+            int[] grid = new int[81];
+            filler.fill(grid);
+            String[] out = new String[9];
+            char[] row = new char[9];
+            for (int r = 0; r < 9; r++) {
+                for (int c = 0; c < 9; c++) row[c] = (char) ('0' + grid[r * 9 + c]);
+                out[r] = new String(row);
             }
-            int br = (r/3)*3, bc = (c/3)*3;
-            for (int i = br; i < br+3; i++)
-                for (int j = bc; j < bc+3; j++)
-                    if (g[i][j] == val) return false;
-            return true;
+            return out;
         }
 
-        static String[] generatePuzzleFromSolution(String[] sol, String difficulty) {
-            int removeCount;
+        static int removeCountFor(String difficulty) {
             switch ((difficulty == null) ? "medium" : difficulty.toLowerCase()) {
-                case "easy": removeCount = 35; break;
-                case "medium": removeCount = 45; break;
-                case "hard": removeCount = 55; break;
-                default: removeCount = 45; break;
+                case "easy": return 35;
+                case "medium": return 55;
+                case "hard": return 64;     // as many as uniqueness allows
+                default: return 55;
             }
-            char[][] grid = new char[9][9];
-            for (int r = 0; r < 9; r++)
-                for (int c = 0; c < 9; c++)
-                    grid[r][c] = sol[r].charAt(c);
-
-            int removed = 0;
-            while (removed < removeCount) {
-                int r = rand.nextInt(9);
-                int c = rand.nextInt(9);
-                if (grid[r][c] != '-') {
-                    grid[r][c] = '-';
-                    removed++;
-                }
-            }
-
-            String[] puzzle = new String[9];
-            for (int r = 0; r < 9; r++) puzzle[r] = new String(grid[r]);
-            return puzzle;
         }
     }
 
     // ---------- Internal solver used by Full Helper ----------
+    // Engine is chosen by configuration (-Dsudoku.solver=bitmask|dlx), one instance per thread.
     static class SudokuSolver {
-        static int[][] solve(int[][] board) {
-            int[][] copy = new int[9][9];
-            for (int i = 0; i < 9; i++) System.arraycopy(board[i], 0, copy[i], 0, 9);
-            if (solveBack(copy)) return copy;
-            return null;
-        }
+        private static final ThreadLocal<SolverEngine> ENGINE = ThreadLocal.withInitial(SolverEngine::fromConfig);
 
-        private static boolean solveBack(int[][] g) {
-            for (int r = 0; r < 9; r++) {
-                for (int c = 0; c < 9; c++) {
-                    if (g[r][c] == 0) {
-                        for (int n = 1; n <= 9; n++) {
-                            if (isValid(g, r, c, n)) {
-                                g[r][c] = n;
-                                if (solveBack(g)) return true;
-                                g[r][c] = 0;
-                            }
-                        }
-                        return false;
-                    }
-                }
-            }
-            return true;
+        static SolverEngine engine() {
+            return ENGINE.get();
         }
 
-        private static boolean isValid(int[][] g, int r, int c, int v) {
-            for (int i = 0; i < 9; i++) {
-                if (g[r][i] == v) return false;
-                if (g[i][c] == v) return false;
-            }
-            int br = (r/3)*3, bc = (c/3)*3;
-            for (int i = br; i < br+3; i++)
-                for (int j = bc; j < bc+3; j++)
-                    if (g[i][j] == v) return false;
-            return true;
+        // Returns a solved copy of board, or null if it has no solution
+        static int[][] solve(int[][] board) {
+            int[] flat = new int[81];
+            for (int r = 0; r < 9; r++) System.arraycopy(board[r], 0, flat, r * 9, 9);
+            int[] out = new int[81];
+            if (!engine().solve(flat, out)) return null;
+            int[][] copy = new int[9][9];
+            for (int r = 0; r < 9; r++) System.arraycopy(out, r * 9, copy[r], 0, 9);
+            return copy;
         }
     }
 }
-
-class GeneratedSudoku {
-    String[] puzzle;
-    String[] solution;
-
-    GeneratedSudoku(String[] puzzle, String[] solution) {
-        this.puzzle = puzzle;
-        this.solution = solution;
-    }
-}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package sudoku.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corpus - bundled puzzle sets, one 81-character puzzle per line ('0' or '.' = empty).
+ *
+ * easy      : 50 easy puzzles from the game's own generator
+ * minimal17 : 10 puzzles with the minimum 17 clues
+ * worstcase : puzzles known to be pathological for naive backtracking
+ *             (anti-brute-force first row, Easter Monster, Arto Inkala, ...)
+ */
+final class Corpus {
+
+    private Corpus() {
+    }
+
+    static int[][] load(String name) {
+        InputStream in = Corpus.class.getResourceAsStream(name + ".txt");
+        if (in == null) throw new IllegalArgumentException("Unknown corpus: " + name);
+        List<int[]> puzzles = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                puzzles.add(parse(line));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return puzzles.toArray(new int[0][]);
+    }
+
+    static int[] parse(String line) {
+        if (line.length() != 81) throw new IllegalArgumentException("Expected 81 characters: " + line);
+        int[] cells = new int[81];
+        for (int i = 0; i < 81; i++) {
+            char ch = line.charAt(i);
+            cells[i] = (ch == '.') ? 0 : ch - '0';
+        }
+        return cells;
+    }
+}
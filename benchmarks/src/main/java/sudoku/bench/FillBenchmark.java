@@ -0,0 +1,48 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the solution-grid fill step on its own.
+ * fillGrid is the game's String[] path; fillFlat is GridFiller's backtracking
+ * alone (expect gc.alloc.rate.norm ~0 B/op); fillTransform is the search-free
+ * seed-grid transformation (-Dsudoku.fill=transform), also 0 B/op.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FillBenchmark {
+
+    private final Object filler = Game.filler();
+    private final int[] grid = new int[81];
+
+    @Benchmark
+    public String[] fillGrid() {
+        return Game.generateFullSolution();
+    }
+
+    @Benchmark
+    public int[] fillFlat() {
+        Game.fill(filler, grid);
+        return grid;
+    }
+
+    @Benchmark
+    public int[] fillTransform() {
+        Game.transform(filler, grid);
+        return grid;
+    }
+}
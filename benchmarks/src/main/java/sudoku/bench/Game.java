@@ -0,0 +1,245 @@
+package sudoku.bench;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import javax.swing.JComponent;
+
+/**
+ * Game - bridge to the game classes, which live in the default package.
+ *
+ * A named package cannot import default-package types, and JMH refuses
+ * benchmark classes in the default package, so every call goes through a
+ * MethodHandle resolved once at class init. Game types are erased to Object;
+ * the handles are static final, so the JIT inlines them like direct calls.
+ */
+final class Game {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // SolverEngine
+    private static final MethodHandle CREATE_ENGINE = handle("SolverEngine", "create", String.class);
+    private static final MethodHandle SOLVE = handle("SolverEngine", "solve", int[].class, int[].class);
+    private static final MethodHandle COUNT = handle("SolverEngine", "countSolutions", int[].class, int.class, int[].class);
+
+    // Generator
+    private static final MethodHandle GENERATE = handle("Sudoku$SudokuGenerator", "generate", String.class);
+    private static final MethodHandle FULL_SOLUTION = handle("Sudoku$SudokuGenerator", "generateFullSolution");
+    private static final MethodHandle FILLER = handle("GridFiller", "local");
+    private static final MethodHandle FILL = handle("GridFiller", "fill", int[].class);
+    private static final MethodHandle TRANSFORM = handle("GridFiller", "transform", int[].class);
+    private static final MethodHandle NEW_GRID_GENERATOR = constructor("GridGenerator", int.class);
+    private static final MethodHandle GRID_GENERATE = handle("GridGenerator", "generate", String.class);
+
+    // Rating and board model
+    private static final MethodHandle RATE = handle("DifficultyRater", "rate", int[].class);
+    private static final MethodHandle NEW_BOARD = constructor("BoardModel");
+    private static final MethodHandle BOARD_RESET = handle("BoardModel", "reset", int[].class);
+    private static final MethodHandle BOARD_SET = handle("BoardModel", "set", int.class, int.class, int.class);
+    private static final MethodHandle BOARD_CAN_PLACE = handle("BoardModel", "canPlace", int.class, int.class, int.class);
+    private static final MethodHandle BOARD_SOLVED = handle("BoardModel", "isSolved");
+
+    // Menu rendering
+    private static final MethodHandle NEW_GRADIENT_PANEL = constructor("MenuSkin$GradientPanel", Color.class, Color.class);
+    private static final MethodHandle FADE_FRAME = handle("MenuSkin", "paintFrame",
+            Graphics2D.class, BufferedImage.class, float.class, int.class, int.class);
+
+    private Game() {
+    }
+
+    static Object engine(String name) {
+        try {
+            return (Object) CREATE_ENGINE.invokeExact(name);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean solve(Object engine, int[] board, int[] out) {
+        try {
+            return (boolean) SOLVE.invokeExact(engine, board, out);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int countSolutions(Object engine, int[] board, int limit, int[] out) {
+        try {
+            return (int) COUNT.invokeExact(engine, board, limit, out);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object generate(String difficulty) {
+        try {
+            return (Object) GENERATE.invokeExact(difficulty);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String[] generateFullSolution() {
+        try {
+            return (String[]) FULL_SOLUTION.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object filler() {
+        try {
+            return (Object) FILLER.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void fill(Object filler, int[] out) {
+        try {
+            FILL.invokeExact(filler, out);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void transform(Object filler, int[] out) {
+        try {
+            TRANSFORM.invokeExact(filler, out);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object gridGenerator(int size) {
+        try {
+            return (Object) NEW_GRID_GENERATOR.invokeExact(size);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object gridGenerate(Object generator, String difficulty) {
+        try {
+            return (Object) GRID_GENERATE.invokeExact(generator, difficulty);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object rate(int[] board) {
+        try {
+            return (Object) RATE.invokeExact(board);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newBoard() {
+        try {
+            return (Object) NEW_BOARD.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void boardReset(Object board, int[] solution) {
+        try {
+            BOARD_RESET.invokeExact(board, solution);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void boardSet(Object board, int r, int c, int v) {
+        try {
+            BOARD_SET.invokeExact(board, r, c, v);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean boardCanPlace(Object board, int r, int c, int v) {
+        try {
+            return (boolean) BOARD_CAN_PLACE.invokeExact(board, r, c, v);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean boardSolved(Object board) {
+        try {
+            return (boolean) BOARD_SOLVED.invokeExact(board);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static JComponent gradientPanel(Color top, Color bottom) {
+        try {
+            return (JComponent) (Object) NEW_GRADIENT_PANEL.invokeExact(top, bottom);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void fadeFrame(Graphics2D g, BufferedImage snapshot, float alpha, int w, int h) {
+        try {
+            FADE_FRAME.invokeExact(g, snapshot, alpha, w, h);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    // ---------- Resolution ----------
+
+    // Method handle with game types erased to Object (receiver first for instance methods)
+    static MethodHandle handle(String className, String name, Class<?>... params) {
+        try {
+            Method m = Class.forName(className).getDeclaredMethod(name, params);
+            m.setAccessible(true);
+            MethodHandle mh = LOOKUP.unreflect(m);
+            return mh.asType(erase(mh.type()));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    static MethodHandle constructor(String className, Class<?>... params) {
+        try {
+            Constructor<?> c = Class.forName(className).getDeclaredConstructor(params);
+            c.setAccessible(true);
+            MethodHandle mh = LOOKUP.unreflectConstructor(c);
+            return mh.asType(erase(mh.type()));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private static MethodType erase(MethodType type) {
+        MethodType t = type;
+        for (int i = 0; i < t.parameterCount(); i++) {
+            if (isGameType(t.parameterType(i))) t = t.changeParameterType(i, Object.class);
+        }
+        if (isGameType(t.returnType())) t = t.changeReturnType(Object.class);
+        return t;
+    }
+
+    private static boolean isGameType(Class<?> c) {
+        Class<?> base = c;
+        while (base.isArray()) base = base.getComponentType();
+        return !base.isPrimitive() && base.getPackageName().isEmpty();
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) return (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,46 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Large-board generation latency (GridGenerator: random fill + unique dig).
+ * Target for 16x16: well under a second per puzzle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GridGenerateBenchmark {
+
+    @Param({"9", "16"})
+    int size;
+
+    @Param({"easy", "hard"})
+    String difficulty;
+
+    private Object generator;
+
+    @Setup
+    public void setup() {
+        generator = Game.gridGenerator(size);
+    }
+
+    @Benchmark
+    public Object generate() {
+        return Game.gridGenerate(generator, difficulty);
+    }
+}
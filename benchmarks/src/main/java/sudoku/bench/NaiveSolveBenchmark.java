@@ -0,0 +1,75 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reference point: the original row-major backtracking solver (rescan from
+ * (0,0), isValid per digit). Only run on the easy corpus; on the 17-clue and
+ * worst-case sets it takes seconds to tens of seconds per puzzle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NaiveSolveBenchmark {
+
+    private int[][] puzzles;
+    private final int[][] grid = new int[9][9];
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = Corpus.load("easy");
+    }
+
+    @Benchmark
+    public boolean solveEasy() {
+        int[] p = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        for (int r = 0; r < 9; r++) System.arraycopy(p, r * 9, grid[r], 0, 9);
+        return solveBack(grid);
+    }
+
+    private static boolean solveBack(int[][] g) {
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (g[r][c] == 0) {
+                    for (int n = 1; n <= 9; n++) {
+                        if (isValid(g, r, c, n)) {
+                            g[r][c] = n;
+                            if (solveBack(g)) return true;
+                            g[r][c] = 0;
+                        }
+                    }
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValid(int[][] g, int r, int c, int v) {
+        for (int i = 0; i < 9; i++) {
+            if (g[r][i] == v) return false;
+            if (g[i][c] == v) return false;
+        }
+        int br = (r / 3) * 3, bc = (c / 3) * 3;
+        for (int i = br; i < br + 3; i++)
+            for (int j = bc; j < bc + 3; j++)
+                if (g[i][j] == v) return false;
+        return true;
+    }
+}
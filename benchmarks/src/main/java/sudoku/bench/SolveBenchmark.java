@@ -0,0 +1,61 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Solve latency per puzzle for each SolverEngine, cycling through a corpus.
+ * countUnique is the uniqueness check used by the digger (stop at 2 solutions).
+ * "parallel" only forks past its sequential budget, so on easy boards it
+ * measures the grid engine plus the fallback check; compare on worstcase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolveBenchmark {
+
+    @Param({"easy", "minimal17", "worstcase"})
+    String corpus;
+
+    @Param({"bitmask", "dlx", "grid", "parallel"})
+    String engine;
+
+    private int[][] puzzles;
+    private Object solver;
+    private final int[] out = new int[81];
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = Corpus.load(corpus);
+        solver = Game.engine(engine);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        int[] p = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return Game.solve(solver, p, out);
+    }
+
+    @Benchmark
+    public int countUnique() {
+        int[] p = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return Game.countSolutions(solver, p, 2, null);
+    }
+}
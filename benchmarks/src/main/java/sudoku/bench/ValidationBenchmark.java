@@ -0,0 +1,69 @@
+package sudoku.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validation hot paths: BoardModel conflict checks and win detection over a
+ * whole game (fill every empty cell, checking each move), and technique
+ * rating per puzzle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    @Param({"easy", "worstcase"})
+    String corpus;
+
+    private int[][] puzzles;
+    private int[][] solutions;
+    private Object board;
+    private int next;
+
+    @Setup
+    public void setup() {
+        puzzles = Corpus.load(corpus);
+        solutions = new int[puzzles.length][81];
+        Object engine = Game.engine("bitmask");
+        for (int i = 0; i < puzzles.length; i++) Game.solve(engine, puzzles[i], solutions[i]);
+        board = Game.newBoard();
+    }
+
+    // One game: load givens, then check and place every remaining digit
+    @Benchmark
+    public boolean playGame() {
+        int i = next;
+        next = (next + 1) % puzzles.length;
+        int[] p = puzzles[i], s = solutions[i];
+        Game.boardReset(board, s);
+        for (int k = 0; k < 81; k++) if (p[k] != 0) Game.boardSet(board, k / 9, k % 9, p[k]);
+        for (int k = 0; k < 81; k++) {
+            if (p[k] != 0) continue;
+            if (!Game.boardCanPlace(board, k / 9, k % 9, s[k])) return false;
+            Game.boardSet(board, k / 9, k % 9, s[k]);
+        }
+        return Game.boardSolved(board);
+    }
+
+    @Benchmark
+    public Object rate() {
+        int[] p = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return Game.rate(p);
+    }
+}